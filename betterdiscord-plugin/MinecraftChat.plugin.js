@@ -12,6 +12,7 @@ module.exports = class MinecraftChat {
     constructor() {
         this.DEFAULT_RELAY_URL = "https://discordrelay.lacha.dev/relay";
         this.RELAY_SOURCE_ID_KEY = "minecraft-chat-relay-source-id";
+        this.STREAM_STATE_KEY_PREFIX = "minecraft-chat-stream-";
         this.defaultSettings = {
             autoConnect: true,
             connectionLoggingChannel: "",
@@ -32,6 +33,12 @@ module.exports = class MinecraftChat {
         this.messageQueues = new Map();
         this.isSendingMessage = new Map();
         this.clientTicks = new Map();
+        this.clientTickReceivedAt = new Map();
+        this.clientRttUs = new Map();
+        this.bridgeCapabilities = new Map();
+        this.streamStates = new Map();
+        this.outboundBatches = new Map();
+        this.outboundFlushScheduled = false;
         this.automationLastTriggered = new Map();
         
         this.isSubscribed = false;
@@ -43,6 +50,8 @@ module.exports = class MinecraftChat {
         this.runningAutomations = new Map();
         this.automationInstanceCounter = 0;
         this.TICK_SYNC_BUFFER = 5;
+        this.TICK_SYNC_MIN_LEAD = 2;
+        this.TICK_MS = 50;
         this.relaySourceId = this.getOrCreateRelaySourceId();
         
         // Cached webpack modules
@@ -213,7 +222,7 @@ module.exports = class MinecraftChat {
                     try {
                         const message = { type: "discord_message", author, content, tickSync: targetTick >= 0, syncGroup };
                         if (targetTick >= 0) message.targetTick = targetTick;
-                        ws.send(JSON.stringify(message));
+                        this.sendBridgeMessage(client.id, ws, message);
                     } catch (e) {
                         this.log(`Error sending to ${client.name}:`, e);
                     }
@@ -238,17 +247,55 @@ module.exports = class MinecraftChat {
 
     // ============== SYNC GROUPS ==============
 
+    sendBridgeMessage(clientId, ws, message) {
+        if (!this.bridgeCapabilities.get(clientId)?.has("batch")) {
+            ws.send(JSON.stringify(message));
+            return;
+        }
+        if (!this.outboundBatches.has(clientId)) this.outboundBatches.set(clientId, []);
+        this.outboundBatches.get(clientId).push(message);
+        if (!this.outboundFlushScheduled) {
+            this.outboundFlushScheduled = true;
+            queueMicrotask(() => this.flushOutboundBatches());
+        }
+    }
+
+    flushOutboundBatches() {
+        this.outboundFlushScheduled = false;
+        for (const [clientId, messages] of this.outboundBatches) {
+            const ws = this.wsConnections.get(clientId);
+            if (ws?.readyState !== WebSocket.OPEN) continue;
+            try { ws.send(JSON.stringify(messages.length === 1 ? messages[0] : { type: "batch", messages })); }
+            catch (e) { this.log(`Error sending batch to ${clientId}:`, e); }
+        }
+        this.outboundBatches.clear();
+    }
+
     calculateTargetTickForSyncGroup(syncGroup) {
         if (syncGroup === "none") return -1;
         const clients = this.getClients().filter(c => c.enabled && (c.syncGroup || "A") === syncGroup);
         if (clients.length === 0) return -1;
         
-        let maxTick = -1;
+        const now = performance.now();
+        let targetTick = -1;
         for (const client of clients) {
             const tick = this.clientTicks.get(client.id);
-            if (tick !== undefined && tick >= 0) maxTick = Math.max(maxTick, tick);
+            if (tick === undefined || tick < 0) continue;
+            
+            const rttUs = this.clientRttUs.get(client.id);
+            if (rttUs === undefined) {
+                targetTick = Math.max(targetTick, tick + this.TICK_SYNC_BUFFER);
+                continue;
+            }
+            const elapsedTicks = Math.floor((now - (this.clientTickReceivedAt.get(client.id) ?? now)) / this.TICK_MS);
+            const leadTicks = this.TICK_SYNC_MIN_LEAD + Math.ceil(rttUs / 1000 / this.TICK_MS);
+            targetTick = Math.max(targetTick, tick + elapsedTicks + leadTicks);
         }
-        return maxTick < 0 ? -1 : maxTick + this.TICK_SYNC_BUFFER;
+        return targetTick;
+    }
+
+    nowMicros() {
+        return Math.round((performance.timeOrigin + performance.now()) * 1000);
     }
 
     // ============== AUTOMATIONS ==============
@@ -426,7 +473,14 @@ module.exports = class MinecraftChat {
                     this.log(`Port ${client.port} taken, using ${portToUse} for "${client.name}"`);
                 }
                 this.log(`Client "${client.name}" connected on port ${portToUse}`);
+                this.bridgeCapabilities.delete(client.id);
+                const stream = this.getStreamState(client.id);
+                try { ws.send(JSON.stringify({ type: "hello", capabilities: stream ? ["batch", "resume"] : ["batch"] })); } catch {}
                 try { ws.send(JSON.stringify({ type: "set_sync_group", syncGroup: client.syncGroup || "A" })); } catch {}
+                try { ws.send(JSON.stringify({ type: "subscribe_ticks", mode: "every_tick" })); } catch {}
+                if (stream) {
+                    try { ws.send(JSON.stringify({ type: "resume", streamId: stream.streamId, lastSeq: stream.lastSeq })); } catch {}
+                }
                 
                 const interval = this.reconnectIntervals.get(client.id);
                 if (interval) { clearInterval(interval); this.reconnectIntervals.delete(client.id); }
@@ -493,12 +547,39 @@ module.exports = class MinecraftChat {
 
     // ============== MESSAGE HANDLING ==============
 
+    getStreamState(clientId) {
+        let state = this.streamStates.get(clientId);
+        if (!state) {
+            try {
+                const stored = globalThis.sessionStorage?.getItem(this.STREAM_STATE_KEY_PREFIX + clientId);
+                if (stored) state = JSON.parse(stored);
+            } catch {}
+            if (state) this.streamStates.set(clientId, state);
+        }
+        return state;
+    }
+
+    saveStreamState(clientId, streamId, lastSeq) {
+        const state = { streamId, lastSeq };
+        this.streamStates.set(clientId, state);
+        try { globalThis.sessionStorage?.setItem(this.STREAM_STATE_KEY_PREFIX + clientId, JSON.stringify(state)); } catch {}
+    }
+
     handleMinecraftMessage(data, clientId) {
         const client = this.getClients().find(c => c.id === clientId);
         if (!client) return;
 
+        if (data.type === "minecraft_message" && typeof data.seq === "number") {
+            const stream = this.getStreamState(clientId);
+            if (stream && data.seq > stream.lastSeq) this.saveStreamState(clientId, stream.streamId, data.seq);
+        }
+
         switch (data.type) {
             case "connection_status": {
+                if (Array.isArray(data.capabilities)) this.bridgeCapabilities.set(clientId, new Set(data.capabilities));
+                if (typeof data.streamId === "number" && this.getStreamState(clientId)?.streamId !== data.streamId) {
+                    this.saveStreamState(clientId, data.streamId, data.seq ?? 0);
+                }
                 const newPlayerName = data.playerName;
                 if (newPlayerName && newPlayerName !== "Unknown" && newPlayerName.trim()) {
                     const prev = this.playerNames.get(clientId);
@@ -515,7 +596,33 @@ module.exports = class MinecraftChat {
                 if (data.name && data.name !== "Unknown") this.playerNames.set(clientId, data.name);
                 break;
             case "tick_update":
-                if (typeof data.tick === "number" && data.tick >= 0) this.clientTicks.set(clientId, data.tick);
+                if (typeof data.tick === "number" && data.tick >= 0) {
+                    this.clientTicks.set(clientId, data.tick);
+                    this.clientTickReceivedAt.set(clientId, performance.now());
+                }
+                if (typeof data.rttUs === "number") this.clientRttUs.set(clientId, data.rttUs);
+                break;
+            case "ping": {
+                const t1 = this.nowMicros();
+                const ws = this.wsConnections.get(clientId);
+                if (ws?.readyState === WebSocket.OPEN) {
+                    try { ws.send(JSON.stringify({ type: "pong", t0: data.t0, t1, t2: this.nowMicros() })); } catch {}
+                }
+                break;
+            }
+            case "resync": {
+                const stream = this.getStreamState(clientId);
+                const lastSeq = stream?.streamId === data.streamId ? Math.max(stream.lastSeq, data.seq) : data.seq;
+                this.saveStreamState(clientId, data.streamId, lastSeq);
+                this.log(`Could not replay missed messages for "${client.name}", some chat may be missing`);
+                break;
+            }
+            case "batch":
+                if (Array.isArray(data.messages)) {
+                    for (const message of data.messages) {
+                        if (message?.type !== "batch") this.handleMinecraftMessage(message, clientId);
+                    }
+                }
                 break;
             case "minecraft_message": {
                 const author = data.author || "Minecraft";
@@ -552,6 +659,7 @@ module.exports = class MinecraftChat {
                         try {
                             ws.send(JSON.stringify({
                                 type: "automation_result",
+                                requestId: data.requestId,
                                 name: automationName,
                                 success,
                                 message: success ? `Automation "${automationName}" executed` : `Automation "${automationName}" not found`
@@ -568,6 +676,7 @@ module.exports = class MinecraftChat {
                     try {
                         ws.send(JSON.stringify({
                             type: "automation_result",
+                            requestId: data.requestId,
                             success: true,
                             message: count > 0 ? `Stopped ${count} running automation(s)` : "No automations were running"
                         }));
@@ -581,6 +690,7 @@ module.exports = class MinecraftChat {
                     try {
                         ws.send(JSON.stringify({
                             type: "automations_list",
+                            requestId: data.requestId,
                             automations: this.getAutomationNames()
                         }));
                     } catch {}
@@ -642,7 +752,7 @@ module.exports = class MinecraftChat {
                 const message = { type: "discord_message", author, content, tickSync: useTickSync, syncGroup };
                 if (useTickSync) message.targetTick = targetTick;
                 if (messageId) message.messageId = messageId;
-                try { ws.send(JSON.stringify(message)); } catch {}
+                try { this.sendBridgeMessage(client.id, ws, message); } catch {}
             }
         }
     }
@@ -1,13 +1,17 @@
 package discord.chat.mc;
 
 import discord.chat.mc.chat.ChatHandler;
+import discord.chat.mc.chat.ChatIntake;
+import discord.chat.mc.chat.PlayerProfileCache;
 import discord.chat.mc.command.DiscordCommand;
 import discord.chat.mc.config.ModConfig;
 import discord.chat.mc.relay.RelayInboundPoller;
 import discord.chat.mc.relay.RelayService;
+import discord.chat.mc.util.ModRuntime;
 import discord.chat.mc.websocket.DiscordWebSocketServer;
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.minecraft.client.multiplayer.ServerData;
 import net.minecraft.client.Minecraft;
@@ -24,19 +28,37 @@ public class DiscordChatIntegrationClient implements ClientModInitializer {
 		DiscordCommand.register();
 		
 		ClientLifecycleEvents.CLIENT_STARTED.register(client -> {
+			ModRuntime.getInstance().start();
 			startWebSocketServer(config.getPort());
 			RelayInboundPoller.getInstance().start();
 		});
 		ClientLifecycleEvents.CLIENT_STOPPING.register(client -> {
 			RelayInboundPoller.getInstance().stop();
 			stopWebSocketServer();
-			ChatHandler.getInstance().shutdown();
+			ModRuntime.getInstance().stop();
+		});
+		ClientTickEvents.END_CLIENT_TICK.register(client -> {
+			ChatIntake.getInstance().onClientTick();
+			DiscordWebSocketServer server = DiscordWebSocketServer.getInstance();
+			if (server != null && server.isRunning()) server.onClientTick(client);
+		});
+		ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> {
+			refreshBridgePlayerState(client);
+			showStatusOnJoin();
+		});
+		ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> {
+			PlayerProfileCache.getInstance().clear();
+			refreshBridgePlayerState(client);
 		});
-		ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> showStatusOnJoin());
 		
 		DiscordChatIntegration.LOGGER.info("Discord Chat Integration client initialized!");
 	}
 	
+	private void refreshBridgePlayerState(Minecraft client) {
+		DiscordWebSocketServer server = DiscordWebSocketServer.getInstance();
+		if (server != null && server.isRunning()) client.execute(() -> server.refreshPlayerState(client));
+	}
+	
 	private void showStatusOnJoin() {
 		Minecraft client = Minecraft.getInstance();
 		if (client == null || client.player == null) return;
@@ -87,9 +109,9 @@ public class DiscordChatIntegrationClient implements ClientModInitializer {
 	private void startWebSocketServer(int port) {
 		DiscordWebSocketServer.createInstance(port);
 		DiscordWebSocketServer server = DiscordWebSocketServer.getInstance();
-		server.setMessageHandler(message -> ChatHandler.getInstance().handleDiscordMessage(message));
+		server.setMessageHandler((connection, messages) -> ChatHandler.getInstance().handleDiscordMessages(connection, messages));
 		
-		new Thread(() -> {
+		ModRuntime.getInstance().execute(() -> {
 			try {
 				server.start();
 				int attempts = 0;
@@ -118,7 +140,7 @@ public class DiscordChatIntegrationClient implements ClientModInitializer {
 					showGenericError();
 				}
 			}
-		}, "Discord-WebSocket-Server").start();
+		});
 	}
 	
 	private void stopWebSocketServer() {
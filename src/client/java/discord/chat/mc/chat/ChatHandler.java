@@ -3,38 +3,73 @@ package discord.chat.mc.chat;
 import discord.chat.mc.DiscordChatIntegration;
 import discord.chat.mc.config.ModConfig;
 import discord.chat.mc.relay.RelayService;
+import discord.chat.mc.util.ExpiringKeyCache;
+import discord.chat.mc.util.KeyedSerialExecutor;
+import discord.chat.mc.util.LatencyHistogram;
+import discord.chat.mc.util.LingerBatcher;
+import discord.chat.mc.util.ModRuntime;
+import discord.chat.mc.util.TickScheduler;
+import discord.chat.mc.util.TokenBucket;
+import discord.chat.mc.util.WeightedFairQueue;
 import discord.chat.mc.websocket.DiscordWebSocketServer;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.minecraft.client.Minecraft;
 import net.minecraft.network.chat.Component;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class ChatHandler {
+    public enum SyncExecutionPhase {
+        START_OF_TICK("start_of_tick"),
+        END_OF_TICK("end_of_tick");
+        
+        private final String configName;
+        
+        SyncExecutionPhase(String configName) {
+            this.configName = configName;
+        }
+        
+        public String configName() { return configName; }
+        
+        public static SyncExecutionPhase fromConfigName(String configName) {
+            for (SyncExecutionPhase phase : values()) {
+                if (phase.configName.equals(configName)) return phase;
+            }
+            return END_OF_TICK;
+        }
+    }
+    
     private static ChatHandler instance;
     
-    private final AtomicBoolean isSendingFromDiscord = new AtomicBoolean(false);
-    private final ConcurrentHashMap<String, Boolean> processedMessageIds = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, Long> sentFromDiscord = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, Long> suppressedIncomingMessages = new ConcurrentHashMap<>();
     private static final long SENT_FROM_DISCORD_WINDOW_MS = 3000;
     private static final long SUPPRESSED_MESSAGE_WINDOW_MS = 5000;
     private static final long SERVER_ONLY_MESSAGE_WINDOW_MS = 8000;
-    private static final long RATE_LIMIT_WINDOW_MS = 60_000;
+    private final EchoMatcher sentFromDiscord = new EchoMatcher(SENT_FROM_DISCORD_WINDOW_MS, 300);
+    private final ExpiringKeyCache<String, Boolean> suppressedIncomingMessages = new ExpiringKeyCache<>(SUPPRESSED_MESSAGE_WINDOW_MS, 500);
     private static final long RATE_LIMIT_NOTICE_COOLDOWN_MS = 5000;
     private static final String SEND_CHAT_PREFIX = "/send";
-    private final ConcurrentLinkedQueue<DiscordWebSocketServer.ChatMessage> tickSyncQueue = new ConcurrentLinkedQueue<>();
-    private final Deque<Long> discordSendHistory = new ArrayDeque<>();
-    private final Object rateLimitLock = new Object();
-    private final ConcurrentHashMap<String, Long> serverOnlyOutgoingMessages = new ConcurrentHashMap<>();
-    private final AtomicInteger allowedServerChatPackets = new AtomicInteger(0);
+    private static final String AUTOMATION_AUTHOR = "Automation";
+    private final TickScheduler<DiscordWebSocketServer.ChatMessage> tickScheduler = new TickScheduler<>();
+    private final LatencyHistogram tickLateness = new LatencyHistogram();
+    private final LatencyHistogram syncDelayMicros = new LatencyHistogram();
+    private final TokenBucket sendLimiter = new TokenBucket(
+            ModConfig.getInstance().getMaxDiscordMessagesPerMinute(), ModConfig.getInstance().getRateLimitBurst());
+    private final WeightedFairQueue<PacedMessage> pacedMessages = new WeightedFairQueue<>();
+    private final AtomicBoolean pacedDrainScheduled = new AtomicBoolean(false);
+    private final LatencyHistogram pacedWaitMicros = new LatencyHistogram();
+    private final AtomicLong rateLimitDrops = new AtomicLong();
+    private final ExpiringKeyCache<String, Boolean> serverOnlyOutgoingMessages = new ExpiringKeyCache<>(SERVER_ONLY_MESSAGE_WINDOW_MS, 500);
+    private final Set<String> chatSendTokens = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
     private final AtomicInteger pendingServerOnlyEchoSkips = new AtomicInteger(0);
     private volatile long pendingServerOnlyEchoExpiresAtMs = 0;
-    private volatile long lastRateLimitNoticeMs = 0;
+    private final AtomicLong lastRateLimitNoticeMs = new AtomicLong();
     
     private volatile String lastSyncGroup = "none";
     private volatile long lastTargetTick = -1;
@@ -43,22 +78,17 @@ public class ChatHandler {
     private volatile long lastExecutionTime = -1;
     private boolean tickListenerRegistered = false;
     
-    private final ExecutorService messageProcessor = Executors.newFixedThreadPool(2, r -> {
-        Thread t = new Thread(r, "Discord-Message-Processor");
-        t.setDaemon(true);
-        return t;
-    });
+    private static final Object FORWARD_LANE = new Object();
+    private static final Object PACED_LANE = new Object();
+    private static final int FORWARD_QUEUE_CAPACITY = 1024;
     
-    private final ExecutorService discordForwardExecutor = Executors.newSingleThreadExecutor(r -> {
-        Thread t = new Thread(r, "Discord-Forward-Processor");
-        t.setDaemon(true);
-        return t;
-    });
+    private final KeyedSerialExecutor lanes = new KeyedSerialExecutor(ModRuntime.getInstance());
+    private final LingerBatcher<ForwardedMessage> forwarder = new LingerBatcher<>(
+            FORWARD_QUEUE_CAPACITY, task -> lanes.execute(FORWARD_LANE, task), this::forwardBatch);
     
     public static ChatHandler getInstance() {
         if (instance == null) {
             instance = new ChatHandler();
-            instance.messageProcessor.execute(() -> {});
             instance.registerTickListener();
         }
         return instance;
@@ -67,37 +97,34 @@ public class ChatHandler {
     private void registerTickListener() {
         if (tickListenerRegistered) return;
         
-        ClientTickEvents.END_CLIENT_TICK.register(minecraftClient -> {
-            if (!tickSyncQueue.isEmpty() && minecraftClient.level != null) {
-                long currentTick = minecraftClient.level.getGameTime();
-                
-                java.util.List<DiscordWebSocketServer.ChatMessage> readyMessages = new java.util.ArrayList<>();
-                java.util.List<DiscordWebSocketServer.ChatMessage> pendingMessages = new java.util.ArrayList<>();
-                
-                DiscordWebSocketServer.ChatMessage message;
-                while ((message = tickSyncQueue.poll()) != null) {
-                    if (message.targetTick < 0 || currentTick >= message.targetTick) {
-                        readyMessages.add(message);
-                    } else {
-                        pendingMessages.add(message);
-                    }
-                }
-                
-                tickSyncQueue.addAll(pendingMessages);
-                
-                for (DiscordWebSocketServer.ChatMessage readyMsg : readyMessages) {
-                    if (readyMsg.targetTick >= 0) {
-                        lastExecutionTick = currentTick;
-                        lastExecutionTime = System.currentTimeMillis();
-                    }
-                    executeMessageImmediately(readyMsg);
-                }
-            }
-        });
+        ClientTickEvents.START_CLIENT_TICK.register(minecraftClient -> releaseDueMessages(minecraftClient, SyncExecutionPhase.START_OF_TICK));
+        ClientTickEvents.END_CLIENT_TICK.register(minecraftClient -> releaseDueMessages(minecraftClient, SyncExecutionPhase.END_OF_TICK));
         
         tickListenerRegistered = true;
     }
     
+    private void releaseDueMessages(Minecraft minecraftClient, SyncExecutionPhase phase) {
+        if (minecraftClient.level == null) return;
+        if (SyncExecutionPhase.fromConfigName(ModConfig.getInstance().getSyncExecutionPhase()) != phase) return;
+        
+        // At the start of a client tick the level has not advanced yet; the tick about to run is the next one.
+        long currentTick = minecraftClient.level.getGameTime() + (phase == SyncExecutionPhase.START_OF_TICK ? 1 : 0);
+        if (!tickScheduler.hasDue(currentTick)) return;
+        
+        for (DiscordWebSocketServer.ChatMessage readyMsg : tickScheduler.pollDue(currentTick)) {
+            if (readyMsg.targetTick >= 0) {
+                lastExecutionTick = currentTick;
+                lastExecutionTime = System.currentTimeMillis();
+                tickLateness.record(currentTick - readyMsg.targetTick);
+                syncDelayMicros.record((System.nanoTime() - readyMsg.receivedAtNanos) / 1_000);
+            }
+            executeMessageImmediately(null, readyMsg);
+        }
+    }
+    
+    public LatencyHistogram getTickLateness() { return tickLateness; }
+    public LatencyHistogram getSyncDelayMicros() { return syncDelayMicros; }
+    
     public String getLastSyncGroup() { return lastSyncGroup; }
     
     public void setLastSyncGroup(String syncGroup) {
@@ -106,119 +133,244 @@ public class ChatHandler {
         }
     }
     
+    public int getScheduledMessageCount() { return tickScheduler.size(); }
+    
+    public record FilterStats(String name, int size, int capacity, long hits, long misses, long evictions) {
+        static FilterStats of(String name, ExpiringKeyCache<?, ?> cache) {
+            return new FilterStats(name, cache.size(), cache.getCapacity(), cache.getHits(), cache.getMisses(), cache.getEvictions());
+        }
+    }
+    
+    public List<FilterStats> getFilterStats() {
+        MessageDeduplicator deduplicator = MessageDeduplicator.getInstance();
+        return List.of(
+                new FilterStats("Message IDs", deduplicator.getTrackedCount(), deduplicator.getCapacity(),
+                        deduplicator.getDuplicates(), deduplicator.getAccepted(), deduplicator.getExpired()),
+                new FilterStats("Discord echoes", sentFromDiscord.size(), sentFromDiscord.getCapacity(),
+                        sentFromDiscord.getHits(), sentFromDiscord.getMisses(), sentFromDiscord.getEvictions()),
+                FilterStats.of("Suppressed messages", suppressedIncomingMessages),
+                FilterStats.of("Server-only messages", serverOnlyOutgoingMessages)
+        );
+    }
+    
+    public boolean cancelScheduledMessage(String messageId) {
+        return messageId != null && tickScheduler.cancel(messageId);
+    }
+    
     public long[] getLastExecutionInfo() {
         if (lastExecutionTime < 0) return null;
         return new long[] { lastTargetTick, lastExecutionTick, lastReceiveTime, lastExecutionTime };
     }
     
-    public void handleDiscordMessage(DiscordWebSocketServer.ChatMessage message) {
+    public void handleDiscordMessages(Object source, java.util.List<DiscordWebSocketServer.ChatMessage> messages) {
         Minecraft client = Minecraft.getInstance();
         if (client == null || client.player == null || client.player.connection == null) return;
         
-        messageProcessor.execute(() -> {
-            try {
-                if (message.messageId != null && !message.messageId.isEmpty()) {
-                    if (processedMessageIds.putIfAbsent(message.messageId, Boolean.TRUE) != null) return;
-                    if (processedMessageIds.size() > 2000) processedMessageIds.clear();
+        int start = 0;
+        while (start < messages.size()) {
+            Object lane = laneFor(source, messages.get(start));
+            int end = start + 1;
+            while (end < messages.size() && lane.equals(laneFor(source, messages.get(end)))) end++;
+            
+            java.util.List<DiscordWebSocketServer.ChatMessage> run = messages.subList(start, end);
+            lanes.execute(lane, () -> {
+                for (DiscordWebSocketServer.ChatMessage message : run) {
+                    try {
+                        processDiscordMessage(source, message);
+                    } catch (Exception e) {
+                        DiscordChatIntegration.LOGGER.error("Error processing Discord message: {}", e.getMessage());
                     }
-                
-                if (message.syncGroup != null && !message.syncGroup.isEmpty()) {
-                    lastSyncGroup = message.syncGroup;
-                }
-                
-                if (message.targetTick >= 0) {
-                    lastReceiveTime = System.currentTimeMillis();
-                    lastTargetTick = message.targetTick;
-                    tickSyncQueue.add(message);
-                    return;
-                }
-                
-                if (message.tickSync) {
-                    tickSyncQueue.add(message);
-                    return;
                 }
-                
-                executeMessageImmediately(message);
-            } catch (Exception e) {
-                DiscordChatIntegration.LOGGER.error("Error processing Discord message: {}", e.getMessage());
-            }
-        });
+            });
+            start = end;
+        }
+    }
+    
+    private Object laneFor(Object source, DiscordWebSocketServer.ChatMessage message) {
+        if (message.targetTick >= 0 || message.tickSync) return "sync:" + message.syncGroup;
+        return source != null ? source : "local";
+    }
+    
+    private void processDiscordMessage(Object source, DiscordWebSocketServer.ChatMessage message) {
+        if (message.messageId != null && !message.messageId.isEmpty()) {
+            String key = MessageDeduplicator.discordMessageKey(message.messageId);
+            if (!MessageDeduplicator.getInstance().markSeen(key, System.currentTimeMillis())) return;
+        }
+        
+        if (message.syncGroup != null && !message.syncGroup.isEmpty()) {
+            lastSyncGroup = message.syncGroup;
+        }
+        
+        if (message.targetTick >= 0) {
+            lastReceiveTime = System.currentTimeMillis();
+            lastTargetTick = message.targetTick;
+            tickScheduler.schedule(message.targetTick, message.messageId, message);
+            return;
+        }
+        
+        if (message.tickSync) {
+            tickScheduler.schedule(Long.MIN_VALUE, message.messageId, message);
+            return;
+        }
+        
+        executeMessageImmediately(source, message);
     }
     
-    private void executeMessageImmediately(DiscordWebSocketServer.ChatMessage message) {
+    private void executeMessageImmediately(Object source, DiscordWebSocketServer.ChatMessage message) {
         Minecraft client = Minecraft.getInstance();
         if (client == null || client.player == null || client.player.connection == null) return;
         
-        if (!isSendingFromDiscord.compareAndSet(false, true)) {
-            DiscordChatIntegration.LOGGER.debug("Concurrent message execution");
+        OutboundMessage outboundMessage = parseOutboundMessage(message.content);
+        if (outboundMessage == null) return;
+        
+        ModConfig config = ModConfig.getInstance();
+        sendLimiter.setLimits(config.getMaxDiscordMessagesPerMinute(), config.getRateLimitBurst());
+        
+        // Synced messages must run on their tick, so they never wait in the paced queue.
+        boolean synced = message.targetTick >= 0 || message.tickSync;
+        if (synced) {
+            if (sendLimiter.tryAcquire(System.nanoTime()) == 0) {
+                dispatchDiscordMessage(client, message, outboundMessage);
+            } else {
+                dropRateLimitedMessage(outboundMessage);
+            }
+            return;
+        }
+        
+        // Unsynced messages are admitted on the lane the paced drain runs on, so a new message
+        // cannot take a token between the drain polling a queued message and dispatching it.
+        lanes.execute(PACED_LANE, () -> admitPacedMessage(source, message, outboundMessage));
+    }
+    
+    private void admitPacedMessage(Object source, DiscordWebSocketServer.ChatMessage message, OutboundMessage outboundMessage) {
+        // Queue behind anything already waiting so the fair queue decides this message's turn.
+        if (pacedMessages.size() > 0) {
+            enqueuePacedMessage(source, message, outboundMessage, 0);
+            return;
+        }
+        
+        long waitNanos = sendLimiter.tryAcquire(System.nanoTime());
+        if (waitNanos > 0) {
+            enqueuePacedMessage(source, message, outboundMessage, waitNanos);
+            return;
         }
         
+        Minecraft client = Minecraft.getInstance();
+        if (client != null) dispatchDiscordMessage(client, message, outboundMessage);
+    }
+    
+    private void dispatchDiscordMessage(Minecraft client, DiscordWebSocketServer.ChatMessage message, OutboundMessage outboundMessage) {
+        if (client.player == null || client.player.connection == null) return;
+        
         try {
-            OutboundMessage outboundMessage = parseOutboundMessage(message.content);
-            if (outboundMessage == null) {
-                isSendingFromDiscord.set(false);
-                return;
-            }
-            
-            int maxPerMinute = ModConfig.getInstance().getMaxDiscordMessagesPerMinute();
-            if (!tryAcquireDiscordSendSlot(maxPerMinute)) {
-                isSendingFromDiscord.set(false);
-                notifyRateLimitReached(maxPerMinute);
-                DiscordChatIntegration.LOGGER.debug(
-                        "Dropped Discord message due to rate limit ({} per minute): {}",
-                        maxPerMinute,
-                        outboundMessage.content()
-                );
-                return;
-            }
-            
             long now = System.currentTimeMillis();
             String playerName = getPlayerName(client);
             if (playerName != null) {
-                sentFromDiscord.put("<" + playerName + "> " + outboundMessage.echoKey(), now);
+                sentFromDiscord.add("<" + playerName + "> " + outboundMessage.echoKey(), now);
             }
-            sentFromDiscord.put(outboundMessage.echoKey(), now);
+            sentFromDiscord.add(outboundMessage.echoKey(), now);
             
             String originalNormalized = normalizeMessageKey(message.content);
             if (!originalNormalized.isEmpty() && !originalNormalized.equals(outboundMessage.echoKey())) {
-                sentFromDiscord.put(originalNormalized, now);
-            }
-            
-            if (sentFromDiscord.size() > 100) {
-                long cutoff = now - SENT_FROM_DISCORD_WINDOW_MS;
-                sentFromDiscord.entrySet().removeIf(entry -> entry.getValue() < cutoff);
+                sentFromDiscord.add(originalNormalized, now);
             }
             
-            client.execute(() -> {
+            Runnable send = () -> {
                 try {
                     if (outboundMessage.isCommand()) {
                         client.player.connection.sendCommand(outboundMessage.content());
                     } else {
-                        allowNextServerChatPacket();
-                        client.player.connection.sendChat(outboundMessage.content());
+                        sendChatWithToken(client, outboundMessage.content());
                     }
                 } catch (Exception e) {
                     DiscordChatIntegration.LOGGER.error("Error sending to chat: {}", e.getMessage());
-                } finally {
-                    messageProcessor.execute(() -> {
-                        try { Thread.sleep(100); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
-                        isSendingFromDiscord.set(false);
-                    });
                 }
-            });
+            };
+            if (client.isSameThread()) {
+                send.run();
+            } else {
+                client.execute(send);
+            }
         } catch (Exception e) {
             DiscordChatIntegration.LOGGER.error("Error executing message: {}", e.getMessage());
-            isSendingFromDiscord.set(false);
         }
     }
     
-    public int getDiscordRateLimitUsage() {
-        synchronized (rateLimitLock) {
-            pruneRateLimitHistoryLocked(System.currentTimeMillis());
-            return discordSendHistory.size();
+    private void enqueuePacedMessage(Object source, DiscordWebSocketServer.ChatMessage message, OutboundMessage outboundMessage, long waitNanos) {
+        ModConfig config = ModConfig.getInstance();
+        boolean automation = isAutomationMessage(message);
+        PacedMessage dropped = pacedMessages.offer(
+                new PacedSource(source, automation),
+                automation ? config.getAutomationSendWeight() : config.getInteractiveSendWeight(),
+                new PacedMessage(message, outboundMessage, System.nanoTime()),
+                config.getRateLimitQueueSize()
+        );
+        if (dropped != null) dropRateLimitedMessage(dropped.outboundMessage());
+        schedulePacedDrain(waitNanos);
+    }
+    
+    private boolean isAutomationMessage(DiscordWebSocketServer.ChatMessage message) {
+        return message.messageId == null && AUTOMATION_AUTHOR.equals(message.author);
+    }
+    
+    private void schedulePacedDrain(long delayNanos) {
+        if (!pacedDrainScheduled.compareAndSet(false, true)) return;
+        
+        long delayMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(delayNanos + 999_999));
+        try {
+            ModRuntime.getInstance().schedule(() -> lanes.execute(PACED_LANE, this::drainPacedMessages), delayMs);
+        } catch (RejectedExecutionException e) {
+            pacedDrainScheduled.set(false);
+        }
+    }
+    
+    private void drainPacedMessages() {
+        pacedDrainScheduled.set(false);
+        
+        while (pacedMessages.size() > 0) {
+            long now = System.nanoTime();
+            long waitNanos = sendLimiter.tryAcquire(now);
+            if (waitNanos > 0) {
+                schedulePacedDrain(waitNanos);
+                return;
+            }
+            
+            PacedMessage next = pacedMessages.poll();
+            pacedWaitMicros.record((now - next.enqueuedAtNanos()) / 1_000);
+            
+            Minecraft client = Minecraft.getInstance();
+            if (client != null) dispatchDiscordMessage(client, next.message(), next.outboundMessage());
         }
     }
     
+    private void dropRateLimitedMessage(OutboundMessage outboundMessage) {
+        int maxPerMinute = ModConfig.getInstance().getMaxDiscordMessagesPerMinute();
+        rateLimitDrops.incrementAndGet();
+        notifyRateLimitReached(maxPerMinute);
+        DiscordChatIntegration.LOGGER.debug(
+                "Dropped Discord message due to rate limit ({} per minute): {}",
+                maxPerMinute,
+                outboundMessage.content()
+        );
+    }
+    
+    public int getRateLimitTokens() { return sendLimiter.getAvailableTokens(System.nanoTime()); }
+    
+    public int getRateLimitBurst() { return sendLimiter.getBurst(); }
+    
+    public int getPacedMessageCount() { return pacedMessages.size(); }
+    
+    public int getPacedSourceCount() { return pacedMessages.getFlowCount(); }
+    
+    public long getOldestPacedWaitMs() {
+        long now = System.nanoTime();
+        return TimeUnit.NANOSECONDS.toMillis(pacedMessages.maxOverHeads(paced -> now - paced.enqueuedAtNanos()));
+    }
+    
+    public LatencyHistogram getPacedWaitMicros() { return pacedWaitMicros; }
+    
+    public long getRateLimitDrops() { return rateLimitDrops.get(); }
+    
     private OutboundMessage parseOutboundMessage(String rawContent) {
         String normalized = normalizeMessageKey(rawContent);
         if (normalized.isEmpty()) return null;
@@ -246,34 +398,11 @@ public class ChatHandler {
                 Character.isWhitespace(normalizedContent.charAt(SEND_CHAT_PREFIX.length()));
     }
     
-    private boolean tryAcquireDiscordSendSlot(int maxPerMinute) {
-        if (maxPerMinute <= 0) return false;
-        
-        long now = System.currentTimeMillis();
-        synchronized (rateLimitLock) {
-            pruneRateLimitHistoryLocked(now);
-            if (discordSendHistory.size() >= maxPerMinute) return false;
-            discordSendHistory.addLast(now);
-            return true;
-        }
-    }
-    
-    private void pruneRateLimitHistoryLocked(long nowMs) {
-        long cutoff = nowMs - RATE_LIMIT_WINDOW_MS;
-        while (!discordSendHistory.isEmpty()) {
-            Long timestamp = discordSendHistory.peekFirst();
-            if (timestamp == null || timestamp >= cutoff) break;
-            discordSendHistory.pollFirst();
-        }
-    }
-    
     private void notifyRateLimitReached(int maxPerMinute) {
         long now = System.currentTimeMillis();
-        synchronized (rateLimitLock) {
-            if ((now - lastRateLimitNoticeMs) < RATE_LIMIT_NOTICE_COOLDOWN_MS) {
-                return;
-            }
-            lastRateLimitNoticeMs = now;
+        long lastNotice = lastRateLimitNoticeMs.get();
+        if ((now - lastNotice) < RATE_LIMIT_NOTICE_COOLDOWN_MS || !lastRateLimitNoticeMs.compareAndSet(lastNotice, now)) {
+            return;
         }
         
         Minecraft client = Minecraft.getInstance();
@@ -291,14 +420,8 @@ public class ChatHandler {
         });
     }
     
-    public boolean consumeServerChatPacketBypass() {
-        while (true) {
-            int current = allowedServerChatPackets.get();
-            if (current <= 0) return false;
-            if (allowedServerChatPackets.compareAndSet(current, current - 1)) {
-                return true;
-            }
-        }
+    public boolean consumeChatSendToken(String message) {
+        return message != null && chatSendTokens.remove(message);
     }
     
     public boolean isLocalChatToDiscordMode() {
@@ -322,7 +445,8 @@ public class ChatHandler {
         
         String playerName = client.player.getName().getString();
         String playerUuid = client.player.getUUID() != null ? client.player.getUUID().toString() : null;
-        sendToDiscordForLogging(playerName, playerUuid, null, normalizedMessage);
+        PlayerProfileCache.PlayerProfile profile = PlayerProfileCache.getInstance().lookup(playerName);
+        sendToDiscordForLogging(playerName, playerUuid, profile != null ? profile.skinUrl() : null, normalizedMessage);
         
         client.player.displayClientMessage(
                 Component.literal("§8[DCI Relay] §9[Discord] §f<" + playerName + "> §7" + normalizedMessage),
@@ -349,10 +473,7 @@ public class ChatHandler {
         
         markServerOnlyOutgoingMessage(client.player.getName().getString(), normalizedMessage);
         markPendingServerOnlyEchoSkip();
-        client.execute(() -> {
-            allowNextServerChatPacket();
-            client.player.connection.sendChat(normalizedMessage);
-        });
+        client.execute(() -> sendChatWithToken(client, normalizedMessage));
         return true;
     }
     
@@ -384,41 +505,50 @@ public class ChatHandler {
             return;
         }
         
-        long now = System.currentTimeMillis();
-        
-        Long sentTime = sentFromDiscord.get(normalizedMessage);
-        if (sentTime != null && (now - sentTime) < SENT_FROM_DISCORD_WINDOW_MS) {
-            sentFromDiscord.remove(normalizedMessage);
+        if (sentFromDiscord.consume(normalizedMessage, System.currentTimeMillis())) {
             return;
         }
         
-        if (!sentFromDiscord.isEmpty()) {
-            long cutoff = now - SENT_FROM_DISCORD_WINDOW_MS;
-            for (var entry : sentFromDiscord.entrySet()) {
-                if (entry.getValue() < cutoff) {
-                    sentFromDiscord.remove(entry.getKey());
-                } else if (normalizedMessage.contains(entry.getKey()) || entry.getKey().equals(normalizedMessage)) {
-                    sentFromDiscord.remove(entry.getKey());
-                    return;
-                }
-            }
-        }
-        
         sendToDiscordForLogging(playerName, playerUuid, skinUrl, normalizedMessage);
     }
     
     private void sendToDiscordForLogging(String playerName, String playerUuid, String skinUrl, String message) {
-        discordForwardExecutor.execute(() -> {
+        ModConfig config = ModConfig.getInstance();
+        forwarder.offer(
+                new ForwardedMessage(playerName, message, playerUuid, skinUrl),
+                config.getForwardLingerMs(),
+                config.getForwardMaxBatch(),
+                LingerBatcher.OverflowPolicy.fromConfigName(config.getForwardOverflowPolicy())
+        );
+    }
+    
+    private void forwardBatch(List<ForwardedMessage> batch) {
+        try {
             DiscordWebSocketServer server = DiscordWebSocketServer.getInstance();
-            if (server != null && server.isRunning() && server.getConnectionCount() > 0) {
-                server.broadcastMinecraftMessage(playerName, message);
+            if (server != null && server.isRunning()) {
+                server.broadcastMinecraftMessages(batch);
             }
-            RelayService.getInstance().relayMinecraftMessage(playerName, message, playerUuid, skinUrl);
-        });
+            RelayService.getInstance().relayMinecraftMessages(batch);
+        } catch (Exception e) {
+            DiscordChatIntegration.LOGGER.error("Error forwarding Minecraft messages: {}", e.getMessage());
+        }
     }
     
-    private void allowNextServerChatPacket() {
-        allowedServerChatPackets.incrementAndGet();
+    public LingerBatcher<ForwardedMessage> getForwarder() { return forwarder; }
+    
+    /**
+     * Sends chat that ClientPacketListenerMixin must let through to the server. The token is a
+     * fresh String instance, so the mixin recognises exactly this send by identity and an
+     * identical message typed by the player is still handled normally.
+     */
+    private void sendChatWithToken(Minecraft client, String content) {
+        String token = new String(content);
+        chatSendTokens.add(token);
+        try {
+            client.player.connection.sendChat(token);
+        } finally {
+            chatSendTokens.remove(token);
+        }
     }
     
     private void markServerOnlyOutgoingMessage(String playerName, String message) {
@@ -426,31 +556,14 @@ public class ChatHandler {
         String normalized = normalizeMessageKey(message);
         if (normalized.isEmpty()) return;
         String key = buildServerOnlyMessageKey(normalizedPlayer, normalized);
-        
-        long now = System.currentTimeMillis();
-        serverOnlyOutgoingMessages.put(key, now);
-        
-        if (serverOnlyOutgoingMessages.size() > 200) {
-            long cutoff = now - SERVER_ONLY_MESSAGE_WINDOW_MS;
-            serverOnlyOutgoingMessages.entrySet().removeIf(entry -> entry.getValue() < cutoff);
-        }
+        serverOnlyOutgoingMessages.put(key, Boolean.TRUE, System.currentTimeMillis());
     }
     
     private boolean isServerOnlyOutgoingMessage(String playerName, String message) {
         String normalizedPlayer = normalizeMessageKey(playerName);
         String normalized = normalizeMessageKey(message);
         String key = buildServerOnlyMessageKey(normalizedPlayer, normalized);
-        Long timestamp = serverOnlyOutgoingMessages.get(key);
-        if (timestamp == null) return false;
-        
-        long now = System.currentTimeMillis();
-        if (now - timestamp < SERVER_ONLY_MESSAGE_WINDOW_MS) {
-            serverOnlyOutgoingMessages.remove(key);
-            return true;
-        }
-        
-        serverOnlyOutgoingMessages.remove(key);
-        return false;
+        return serverOnlyOutgoingMessages.remove(key, System.currentTimeMillis()) != null;
     }
     
     private void markPendingServerOnlyEchoSkip() {
@@ -495,23 +608,11 @@ public class ChatHandler {
         String normalized = normalizeMessageKey(message);
         if (normalized.isEmpty()) return;
         
-        suppressedIncomingMessages.put(normalized, System.currentTimeMillis());
-        if (suppressedIncomingMessages.size() > 200) {
-            long cutoff = System.currentTimeMillis() - SUPPRESSED_MESSAGE_WINDOW_MS;
-            suppressedIncomingMessages.entrySet().removeIf(entry -> entry.getValue() < cutoff);
-        }
+        suppressedIncomingMessages.put(normalized, Boolean.TRUE, System.currentTimeMillis());
     }
     
     private boolean isSuppressedIncomingMessage(String message) {
-        Long timestamp = suppressedIncomingMessages.get(message);
-        if (timestamp == null) return false;
-        
-        if (System.currentTimeMillis() - timestamp < SUPPRESSED_MESSAGE_WINDOW_MS) {
-            return true;
-        }
-        
-        suppressedIncomingMessages.remove(message);
-        return false;
+        return suppressedIncomingMessages.get(message, System.currentTimeMillis()) != null;
     }
     
     private String normalizeMessageKey(String message) {
@@ -543,16 +644,9 @@ public class ChatHandler {
     
     private record OutboundMessage(String content, boolean isCommand, String echoKey) {}
     
-    public void shutdown() {
-        messageProcessor.shutdown();
-        discordForwardExecutor.shutdown();
-        try {
-            if (!messageProcessor.awaitTermination(2, TimeUnit.SECONDS)) messageProcessor.shutdownNow();
-            if (!discordForwardExecutor.awaitTermination(2, TimeUnit.SECONDS)) discordForwardExecutor.shutdownNow();
-        } catch (InterruptedException e) {
-            messageProcessor.shutdownNow();
-            discordForwardExecutor.shutdownNow();
-            Thread.currentThread().interrupt();
-        }
-    }
+    public record ForwardedMessage(String playerName, String message, String playerUuid, String skinUrl) {}
+    
+    private record PacedSource(Object connection, boolean automation) {}
+    
+    private record PacedMessage(DiscordWebSocketServer.ChatMessage message, OutboundMessage outboundMessage, long enqueuedAtNanos) {}
 }
@@ -0,0 +1,134 @@
+package discord.chat.mc.chat;
+
+import discord.chat.mc.util.LatencyHistogram;
+import discord.chat.mc.util.ModRuntime;
+import discord.chat.mc.util.SpscRing;
+import net.minecraft.client.Minecraft;
+import net.minecraft.network.chat.Component;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves chat interception off the render thread. {@link #publish} is all ChatComponentMixin does
+ * per line: it stores the component and a timestamp in a single-producer ring and returns. The
+ * ring is drained on a background thread once per client tick, or as soon as it is half full;
+ * the drain stringifies and parses the lines, resolves senders and runs ChatHandler's echo
+ * checks in arrival order. When the ring is full the newest line is dropped and counted.
+ * The time publish holds the render thread goes into power-of-two buckets that only the render
+ * thread touches, so measuring it takes no lock; read them from the render thread too.
+ */
+public final class ChatIntake {
+    private static final int CAPACITY = 1024;
+    private static final ChatIntake INSTANCE = new ChatIntake();
+
+    private final SpscRing<Component> ring = new SpscRing<>(CAPACITY);
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    private final long[] publishBuckets = new long[64];
+    private long publishCount;
+    private long publishMax;
+    private final LatencyHistogram handoffMicros = new LatencyHistogram();
+    private final LongAdder dropped = new LongAdder();
+
+    private ChatIntake() {}
+
+    public static ChatIntake getInstance() {
+        return INSTANCE;
+    }
+
+    public void publish(Component message) {
+        Minecraft client = Minecraft.getInstance();
+        if (client != null && !client.isSameThread()) {
+            client.execute(() -> publish(message));
+            return;
+        }
+
+        long start = System.nanoTime();
+        if (!ring.offer(message, start)) {
+            dropped.increment();
+        } else if (ring.size() >= ring.getCapacity() / 2) {
+            scheduleDrain();
+        }
+        recordPublish(Math.max(0, System.nanoTime() - start));
+    }
+
+    private void recordPublish(long nanos) {
+        publishBuckets[64 - Long.numberOfLeadingZeros(nanos)]++;
+        publishCount++;
+        if (nanos > publishMax) publishMax = nanos;
+    }
+
+    public void onClientTick() {
+        if (!ring.isEmpty()) scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (!drainScheduled.compareAndSet(false, true)) return;
+        try {
+            ModRuntime.getInstance().execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            drainScheduled.set(false);
+        }
+    }
+
+    private void drain() {
+        try {
+            Component message;
+            while ((message = ring.poll()) != null) {
+                handoffMicros.record((System.nanoTime() - ring.getLastPolledStamp()) / 1000);
+                try {
+                    handleLine(message);
+                } catch (Exception ignored) {}
+            }
+        } finally {
+            drainScheduled.set(false);
+        }
+    }
+
+    private void handleLine(Component message) {
+        ChatLineParser.ParsedChat parsedChat = ChatLineParser.parse(message.getString());
+        if (parsedChat == null || "System".equals(parsedChat.playerName())) return;
+
+        PlayerProfileCache.PlayerProfile profile = PlayerProfileCache.getInstance().lookup(parsedChat.playerName());
+        String playerUuid = profile != null ? profile.id().toString() : resolveLocalPlayerUuid(parsedChat.playerName());
+        String skinUrl = profile != null ? profile.skinUrl() : null;
+        ChatHandler.getInstance().handleIncomingMinecraftMessage(parsedChat.playerName(), parsedChat.content(), playerUuid, skinUrl);
+    }
+
+    private String resolveLocalPlayerUuid(String playerName) {
+        Minecraft client = Minecraft.getInstance();
+        if (client == null || client.player == null) return null;
+
+        try {
+            String localName = client.player.getGameProfile().name();
+            if (localName != null && localName.equalsIgnoreCase(playerName) && client.player.getGameProfile().id() != null) {
+                return client.player.getGameProfile().id().toString();
+            }
+        } catch (Exception ignored) {}
+
+        return null;
+    }
+
+    public int getQueuedCount() { return ring.size(); }
+    public int getCapacity() { return ring.getCapacity(); }
+    public long getDroppedCount() { return dropped.sum(); }
+    public long getPublishNanosMax() { return publishMax; }
+
+    /**
+     * Upper bound of the power-of-two bucket holding the given percentile of publish times, capped
+     * at the largest time seen. Render thread only.
+     */
+    public long getPublishNanosAtPercentile(double percentile) {
+        if (publishCount == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(publishCount * Math.min(100, Math.max(0, percentile)) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < publishBuckets.length; i++) {
+            seen += publishBuckets[i];
+            if (seen >= target) return Math.min(publishMax, (1L << i) - 1);
+        }
+        return publishMax;
+    }
+
+    public LatencyHistogram getHandoffMicros() { return handoffMicros; }
+}
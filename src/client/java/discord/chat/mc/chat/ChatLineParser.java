@@ -0,0 +1,165 @@
+package discord.chat.mc.chat;
+
+/**
+ * Single-pass replacement for the regexes that used to read chat lines. {@link #parse} strips
+ * {@code §} formatting codes into a per-thread scratch buffer, skips {@code [prefix]} groups and
+ * reads {@code <name> message} or {@code name: message} in place; the only strings it allocates
+ * are the name and message it returns. Results are identical to
+ * {@code replaceAll("\\u00A7.", "").trim()} followed by the patterns
+ * {@code ^(?:\[[^\]]+\]\s*)*<([^>]{1,64})>\s*(.+)$} and
+ * {@code ^(?:\[[^\]]+\]\s*)*([A-Za-z0-9_]{3,16})\s*:\s+(.+)$}, tried in that order, with both
+ * groups trimmed.
+ */
+public final class ChatLineParser {
+    public record ParsedChat(String playerName, String content) {}
+
+    private static final String RELAY_PREFIX = "[DCI Relay]";
+    private static final int MAX_BRACKET_NAME = 64;
+    private static final int MIN_COLON_NAME = 3;
+    private static final int MAX_COLON_NAME = 16;
+
+    private static final ThreadLocal<char[]> SCRATCH = ThreadLocal.withInitial(() -> new char[256]);
+
+    private ChatLineParser() {}
+
+    /**
+     * Same as {@code text.replaceAll("\\u00A7.", "").trim()}.
+     */
+    public static String stripFormatting(String text) {
+        if (text.indexOf('§') < 0) return text.trim();
+
+        char[] buffer = new char[text.length()];
+        int length = strip(text, buffer);
+        int start = trimStart(buffer, 0, length);
+        int end = trimEnd(buffer, start, length);
+        return new String(buffer, start, end - start);
+    }
+
+    /**
+     * Returns the sender and message of a player chat line, or {@code null} for blank lines, relay
+     * echoes and lines that match neither chat format.
+     */
+    public static ParsedChat parse(String text) {
+        char[] buffer = SCRATCH.get();
+        if (buffer.length < text.length()) {
+            buffer = new char[Math.max(text.length(), buffer.length * 2)];
+            SCRATCH.set(buffer);
+        }
+
+        int length = strip(text, buffer);
+        int start = trimStart(buffer, 0, length);
+        int end = trimEnd(buffer, start, length);
+        if (start == end || startsWith(buffer, start, end, RELAY_PREFIX)) return null;
+
+        int prefixEnd = skipPrefixGroups(buffer, start, end);
+        ParsedChat bracket = parseBracket(buffer, prefixEnd, end);
+        return bracket != null ? bracket : parseColon(buffer, prefixEnd, end);
+    }
+
+    private static ParsedChat parseBracket(char[] buffer, int position, int end) {
+        if (position >= end || buffer[position] != '<') return null;
+
+        int close = position + 1;
+        while (close < end && buffer[close] != '>') close++;
+        int nameLength = close - position - 1;
+        if (close == end || nameLength < 1 || nameLength > MAX_BRACKET_NAME) return null;
+
+        String content = readContent(buffer, close + 1, end, 0);
+        return content != null ? new ParsedChat(trimmedString(buffer, position + 1, close), content) : null;
+    }
+
+    private static ParsedChat parseColon(char[] buffer, int position, int end) {
+        int nameEnd = position;
+        while (nameEnd < end && isNameChar(buffer[nameEnd])) nameEnd++;
+        int nameLength = nameEnd - position;
+        if (nameLength < MIN_COLON_NAME || nameLength > MAX_COLON_NAME) return null;
+
+        int colon = nameEnd;
+        while (colon < end && isSpace(buffer[colon])) colon++;
+        if (colon == end || buffer[colon] != ':') return null;
+
+        String content = readContent(buffer, colon + 1, end, 1);
+        return content != null ? new ParsedChat(new String(buffer, position, nameLength), content) : null;
+    }
+
+    /**
+     * Matches {@code \s{minSpaces,}(.+)$} from {@code position} and returns the trimmed group.
+     */
+    private static String readContent(char[] buffer, int position, int end, int minSpaces) {
+        int from = position;
+        while (from < end && isSpace(buffer[from])) from++;
+        if (from - position < minSpaces) return null;
+        if (from == end) {
+            if (from - position <= minSpaces) return null;
+            from = end - 1;
+        }
+
+        for (int i = from; i < end; i++) {
+            if (isLineTerminator(buffer[i])) return null;
+        }
+        return trimmedString(buffer, from, end);
+    }
+
+    private static int skipPrefixGroups(char[] buffer, int position, int end) {
+        while (position < end && buffer[position] == '[') {
+            int close = position + 1;
+            while (close < end && buffer[close] != ']') close++;
+            if (close == end || close == position + 1) break;
+
+            position = close + 1;
+            while (position < end && isSpace(buffer[position])) position++;
+        }
+        return position;
+    }
+
+    private static int strip(String text, char[] buffer) {
+        int length = text.length();
+        int written = 0;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '§' && i + 1 < length && !isLineTerminator(text.charAt(i + 1))) {
+                i++;
+                if (Character.isHighSurrogate(text.charAt(i)) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) i++;
+                continue;
+            }
+            buffer[written++] = c;
+        }
+        return written;
+    }
+
+    private static String trimmedString(char[] buffer, int start, int end) {
+        start = trimStart(buffer, start, end);
+        end = trimEnd(buffer, start, end);
+        return new String(buffer, start, end - start);
+    }
+
+    private static int trimStart(char[] buffer, int start, int end) {
+        while (start < end && buffer[start] <= ' ') start++;
+        return start;
+    }
+
+    private static int trimEnd(char[] buffer, int start, int end) {
+        while (end > start && buffer[end - 1] <= ' ') end--;
+        return end;
+    }
+
+    private static boolean startsWith(char[] buffer, int start, int end, String prefix) {
+        if (end - start < prefix.length()) return false;
+        for (int i = 0; i < prefix.length(); i++) {
+            if (buffer[start + i] != prefix.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static boolean isNameChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+}
@@ -0,0 +1,216 @@
+package discord.chat.mc.chat;
+
+import discord.chat.mc.util.ExpiringKeyCache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recognises server echoes of messages we sent from Discord: an incoming line is an echo if it
+ * contains any key added within the window. Keys are compiled into an Aho-Corasick automaton so
+ * a lookup is one pass over the line no matter how many keys are pending. {@link #add} only
+ * records the key and marks the automaton stale; the next {@link #consume} rebuilds it once for
+ * everything added since, on the chat intake thread. Between rebuilds lookups use an immutable
+ * snapshot without locking and skip keys that were consumed or expired since it was built.
+ */
+final class EchoMatcher {
+    private static final class Key {
+        final String text;
+        final long addedAtMs;
+        final AtomicBoolean consumed = new AtomicBoolean();
+
+        Key(String text, long addedAtMs) {
+            this.text = text;
+            this.addedAtMs = addedAtMs;
+        }
+    }
+
+    private static final class Automaton {
+        static final char[] NO_LABELS = new char[0];
+        static final int[] NO_TARGETS = new int[0];
+        static final Automaton EMPTY = new Automaton(List.of());
+
+        final Key[] keys;
+        final long newestAddedAtMs;
+        char[][] labels;
+        int[][] targets;
+        int[] fail;
+        int[][] outputs;
+        int[] rootAscii;
+
+        Automaton(List<Key> keys) {
+            this.keys = keys.toArray(new Key[0]);
+            long newest = Long.MIN_VALUE;
+            for (Key key : this.keys) newest = Math.max(newest, key.addedAtMs);
+            this.newestAddedAtMs = newest;
+            build();
+        }
+
+        private void build() {
+            int capacity = 1;
+            for (Key key : keys) capacity += key.text.length();
+            labels = new char[capacity][];
+            targets = new int[capacity][];
+            int[] terminal = new int[capacity];
+            Arrays.fill(terminal, -1);
+            labels[0] = NO_LABELS;
+            targets[0] = NO_TARGETS;
+            int nodes = 1;
+
+            for (int k = 0; k < keys.length; k++) {
+                int node = 0;
+                String text = keys[k].text;
+                for (int i = 0; i < text.length(); i++) {
+                    char c = text.charAt(i);
+                    int slot = Arrays.binarySearch(labels[node], c);
+                    if (slot >= 0) {
+                        node = targets[node][slot];
+                        continue;
+                    }
+                    int child = nodes++;
+                    labels[child] = NO_LABELS;
+                    targets[child] = NO_TARGETS;
+                    labels[node] = insert(labels[node], -slot - 1, c);
+                    targets[node] = insert(targets[node], -slot - 1, child);
+                    node = child;
+                }
+                terminal[node] = k;
+            }
+            labels = Arrays.copyOf(labels, nodes);
+            targets = Arrays.copyOf(targets, nodes);
+
+            rootAscii = new int[128];
+            Arrays.fill(rootAscii, -1);
+            for (int i = 0; i < labels[0].length && labels[0][i] < 128; i++) rootAscii[labels[0][i]] = targets[0][i];
+
+            fail = new int[nodes];
+            outputs = new int[nodes][];
+            outputs[0] = terminal[0] >= 0 ? new int[] {terminal[0]} : NO_TARGETS;
+            int[] queue = new int[nodes];
+            int queueHead = 0;
+            int queueTail = 0;
+            for (int child : targets[0]) {
+                outputs[child] = terminal[child] >= 0 ? new int[] {terminal[child]} : NO_TARGETS;
+                queue[queueTail++] = child;
+            }
+            while (queueHead < queueTail) {
+                int node = queue[queueHead++];
+                for (int i = 0; i < labels[node].length; i++) {
+                    char c = labels[node][i];
+                    int child = targets[node][i];
+                    int f = fail[node];
+                    while (f != 0 && step(f, c) < 0) f = fail[f];
+                    int next = step(f, c);
+                    fail[child] = next >= 0 && next != child ? next : 0;
+                    outputs[child] = terminal[child] >= 0 ? prepend(terminal[child], outputs[fail[child]]) : outputs[fail[child]];
+                    queue[queueTail++] = child;
+                }
+            }
+        }
+
+        int step(int node, char c) {
+            if (node == 0 && c < 128) return rootAscii[c];
+            int i = Arrays.binarySearch(labels[node], c);
+            return i >= 0 ? targets[node][i] : -1;
+        }
+
+        private static char[] insert(char[] array, int index, char value) {
+            char[] grown = new char[array.length + 1];
+            System.arraycopy(array, 0, grown, 0, index);
+            grown[index] = value;
+            System.arraycopy(array, index, grown, index + 1, array.length - index);
+            return grown;
+        }
+
+        private static int[] insert(int[] array, int index, int value) {
+            int[] grown = new int[array.length + 1];
+            System.arraycopy(array, 0, grown, 0, index);
+            grown[index] = value;
+            System.arraycopy(array, index, grown, index + 1, array.length - index);
+            return grown;
+        }
+
+        private static int[] prepend(int value, int[] array) {
+            return insert(array, 0, value);
+        }
+    }
+
+    private final long windowMs;
+    private final ExpiringKeyCache<String, Key> live;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile Automaton automaton = Automaton.EMPTY;
+    private volatile boolean dirty;
+    private volatile long newestAddedAtMs = Long.MIN_VALUE;
+
+    EchoMatcher(long windowMs, int capacity) {
+        this.windowMs = windowMs;
+        this.live = new ExpiringKeyCache<>(windowMs, capacity);
+    }
+
+    synchronized void add(String text, long nowMs) {
+        if (text == null || text.isEmpty()) return;
+
+        Key replaced = live.put(text, new Key(text, nowMs), nowMs);
+        if (replaced != null) replaced.consumed.set(true);
+        newestAddedAtMs = Math.max(newestAddedAtMs, nowMs);
+        dirty = true;
+    }
+
+    private synchronized Automaton rebuild(long nowMs) {
+        if (!dirty) return automaton;
+        dirty = false;
+
+        List<Key> keys = new ArrayList<>();
+        for (Key key : live.values(nowMs)) {
+            if (key.consumed.get()) live.remove(key.text, key);
+            else keys.add(key);
+        }
+        automaton = new Automaton(keys);
+        return automaton;
+    }
+
+    int size() { return live.size(); }
+    int getCapacity() { return live.getCapacity(); }
+    long getHits() { return hits.sum(); }
+    long getMisses() { return misses.sum(); }
+    long getEvictions() { return live.getEvictions(); }
+
+    /**
+     * Returns whether {@code message} contains a live key, consuming the first one found.
+     */
+    boolean consume(String message, long nowMs) {
+        if (newestAddedAtMs < nowMs - windowMs) {
+            misses.increment();
+            return false;
+        }
+
+        Automaton current = dirty ? rebuild(nowMs) : automaton;
+        if (current.keys.length == 0 || current.newestAddedAtMs < nowMs - windowMs) {
+            misses.increment();
+            return false;
+        }
+
+        long cutoff = nowMs - windowMs;
+        int node = 0;
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            int next;
+            while ((next = current.step(node, c)) < 0 && node != 0) node = current.fail[node];
+            node = Math.max(next, 0);
+
+            for (int k : current.outputs[node]) {
+                Key key = current.keys[k];
+                if (key.addedAtMs >= cutoff && key.consumed.compareAndSet(false, true)) {
+                    hits.increment();
+                    return true;
+                }
+            }
+        }
+        misses.increment();
+        return false;
+    }
+}
@@ -0,0 +1,132 @@
+package discord.chat.mc.chat;
+
+import java.util.Arrays;
+
+/**
+ * Remembers which Discord messages and relay events have already been handled, shared by the
+ * WebSocket and relay ingress paths. Keys go into a ring of Bloom filters, one per time slice;
+ * the oldest slice is cleared as the window slides, so memory stays fixed at 64 KiB no matter
+ * the volume and a key is remembered for at least {@link #WINDOW_MS}. There are no false
+ * negatives inside the window. False positives stay below one in a million per slice for up to
+ * {@link #SLICE_CAPACITY} keys, far above what the Discord rate limit lets through.
+ */
+public final class MessageDeduplicator {
+    private static final long WINDOW_MS = 10 * 60_000;
+    private static final int SLICE_COUNT = 4;
+    private static final int SLICE_BITS = 1 << 17;
+    private static final int SLICE_CAPACITY = 2800;
+    private static final int HASH_COUNT = 7;
+
+    private static final MessageDeduplicator INSTANCE = new MessageDeduplicator();
+
+    private final long[][] slices = new long[SLICE_COUNT][SLICE_BITS / Long.SIZE];
+    private final int[] sliceCounts = new int[SLICE_COUNT];
+    private final long sliceWidthMs = WINDOW_MS / (SLICE_COUNT - 1);
+    private long currentSlot = Long.MIN_VALUE;
+    private long accepted;
+    private long duplicates;
+    private long expired;
+
+    private MessageDeduplicator() {}
+
+    public static MessageDeduplicator getInstance() {
+        return INSTANCE;
+    }
+
+    public static String discordMessageKey(String messageId) {
+        return "discord:" + messageId;
+    }
+
+    /**
+     * Relay event IDs are only unique within one relay, so the key includes which relay sent it.
+     */
+    public static String relayEventKey(String relay, long eventId) {
+        return "relay:" + relay + ":" + eventId;
+    }
+
+    /**
+     * Records {@code key} and returns {@code true} if it had not been seen within the window.
+     */
+    public synchronized boolean markSeen(String key, long nowMs) {
+        advance(nowMs);
+        long hash = hash(key);
+        if (contains(hash)) {
+            duplicates++;
+            return false;
+        }
+
+        long[] bits = slices[(int) Math.floorMod(currentSlot, SLICE_COUNT)];
+        long step = step(hash);
+        for (int i = 0; i < HASH_COUNT; i++) {
+            int bit = (int) ((hash + i * step) & (SLICE_BITS - 1));
+            bits[bit >>> 6] |= 1L << bit;
+        }
+        sliceCounts[(int) Math.floorMod(currentSlot, SLICE_COUNT)]++;
+        accepted++;
+        return true;
+    }
+
+    public synchronized boolean hasSeen(String key, long nowMs) {
+        advance(nowMs);
+        return contains(hash(key));
+    }
+
+    public synchronized int getTrackedCount() { return Arrays.stream(sliceCounts).sum(); }
+    public int getCapacity() { return SLICE_CAPACITY * SLICE_COUNT; }
+    public synchronized long getAccepted() { return accepted; }
+    public synchronized long getDuplicates() { return duplicates; }
+    public synchronized long getExpired() { return expired; }
+
+    private boolean contains(long hash) {
+        long step = step(hash);
+        for (long[] bits : slices) {
+            boolean all = true;
+            for (int i = 0; i < HASH_COUNT && all; i++) {
+                int bit = (int) ((hash + i * step) & (SLICE_BITS - 1));
+                all = (bits[bit >>> 6] & (1L << bit)) != 0;
+            }
+            if (all) return true;
+        }
+        return false;
+    }
+
+    private void advance(long nowMs) {
+        long slot = Math.floorDiv(nowMs, sliceWidthMs);
+        if (currentSlot == Long.MIN_VALUE) {
+            currentSlot = slot;
+            return;
+        }
+        if (slot <= currentSlot) return;
+
+        long steps = Math.min(slot - currentSlot, SLICE_COUNT);
+        for (long i = 1; i <= steps; i++) {
+            int index = (int) Math.floorMod(currentSlot + i, SLICE_COUNT);
+            Arrays.fill(slices[index], 0L);
+            expired += sliceCounts[index];
+            sliceCounts[index] = 0;
+        }
+        currentSlot = slot;
+    }
+
+    private static long hash(String key) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long step(long hash) {
+        return mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB2F99A6D2F1BL;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,132 @@
+package discord.chat.mc.chat;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.mojang.authlib.GameProfile;
+import com.mojang.authlib.properties.Property;
+import discord.chat.mc.util.ModRuntime;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * UUID and skin URL by name for everyone on the tab list, fed from the player info packets. A
+ * profile can be looked up as soon as it is tracked; its textures property is decoded once on a
+ * background thread and the skin URL filled in when ready. Entries are dropped when the player
+ * leaves or the connection closes, so resolving a chat sender is a single map read.
+ */
+public final class PlayerProfileCache {
+    public record PlayerProfile(UUID id, String name, String skinUrl) {}
+
+    private record Entry(PlayerProfile profile, String textures) {}
+
+    private record PendingSkin(String key, Entry entry) {}
+
+    private static final PlayerProfileCache INSTANCE = new PlayerProfileCache();
+
+    private final ConcurrentHashMap<String, Entry> byName = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, String> nameKeys = new ConcurrentHashMap<>();
+    private final LongAdder decoded = new LongAdder();
+
+    private PlayerProfileCache() {}
+
+    public static PlayerProfileCache getInstance() {
+        return INSTANCE;
+    }
+
+    public void track(Collection<GameProfile> profiles) {
+        List<PendingSkin> pending = new ArrayList<>();
+        for (GameProfile profile : profiles) {
+            if (profile == null || profile.id() == null || profile.name() == null || profile.name().isBlank()) continue;
+
+            String key = nameKey(profile.name());
+            String textures = texturesValue(profile);
+            Entry current = byName.get(key);
+            if (current != null && current.profile().id().equals(profile.id())
+                    && (textures == null ? current.textures() == null : textures.equals(current.textures()))) {
+                continue;
+            }
+
+            Entry entry = new Entry(new PlayerProfile(profile.id(), profile.name(), null), textures);
+            String previousKey = nameKeys.put(profile.id(), key);
+            if (previousKey != null && !previousKey.equals(key)) byName.remove(previousKey);
+            byName.put(key, entry);
+            if (textures != null) pending.add(new PendingSkin(key, entry));
+        }
+        if (pending.isEmpty()) return;
+
+        try {
+            ModRuntime.getInstance().execute(() -> {
+                for (PendingSkin skin : pending) {
+                    String skinUrl = decodeSkinUrl(skin.entry().textures());
+                    decoded.increment();
+                    if (skinUrl == null) continue;
+
+                    PlayerProfile profile = skin.entry().profile();
+                    Entry resolved = new Entry(new PlayerProfile(profile.id(), profile.name(), skinUrl), skin.entry().textures());
+                    byName.computeIfPresent(skin.key(), (key, current) -> current == skin.entry() ? resolved : current);
+                }
+            });
+        } catch (RejectedExecutionException ignored) {}
+    }
+
+    public void forget(Collection<UUID> ids) {
+        for (UUID id : ids) {
+            String key = nameKeys.remove(id);
+            if (key != null) byName.computeIfPresent(key, (k, current) -> current.profile().id().equals(id) ? null : current);
+        }
+    }
+
+    public void clear() {
+        byName.clear();
+        nameKeys.clear();
+    }
+
+    public PlayerProfile lookup(String playerName) {
+        if (playerName == null || playerName.isBlank()) return null;
+        Entry entry = byName.get(nameKey(playerName));
+        return entry != null ? entry.profile() : null;
+    }
+
+    public int size() { return byName.size(); }
+    public long getDecodedCount() { return decoded.sum(); }
+
+    private static String nameKey(String playerName) {
+        return playerName.toLowerCase(Locale.ROOT);
+    }
+
+    private static String texturesValue(GameProfile profile) {
+        try {
+            Collection<Property> textures = profile.properties().get("textures");
+            if (textures == null) return null;
+            for (Property property : textures) {
+                if (property != null && property.value() != null && !property.value().isBlank()) return property.value();
+            }
+        } catch (Exception ignored) {}
+        return null;
+    }
+
+    private static String decodeSkinUrl(String textures) {
+        try {
+            String decoded = new String(Base64.getDecoder().decode(textures), StandardCharsets.UTF_8);
+            JsonObject root = JsonParser.parseString(decoded).getAsJsonObject();
+            if (!root.has("textures")) return null;
+            JsonObject texturesObj = root.getAsJsonObject("textures");
+            if (!texturesObj.has("SKIN")) return null;
+            JsonObject skinObj = texturesObj.getAsJsonObject("SKIN");
+            if (!skinObj.has("url")) return null;
+            String url = skinObj.get("url").getAsString();
+            return url != null && !url.isBlank() ? url : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -5,7 +5,12 @@ import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.suggestion.SuggestionProvider;
 import discord.chat.mc.chat.ChatHandler;
+import discord.chat.mc.chat.ChatIntake;
 import discord.chat.mc.config.ModConfig;
+import discord.chat.mc.util.LatencyHistogram;
+import discord.chat.mc.util.LingerBatcher;
+import discord.chat.mc.util.ModRuntime;
+import discord.chat.mc.websocket.BridgeConnection;
 import discord.chat.mc.websocket.DiscordWebSocketServer;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandManager;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
@@ -17,15 +22,17 @@ import net.minecraft.network.chat.Component;
 
 import java.net.URI;
 import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 
 public class DiscordCommand {
     
     private static final SuggestionProvider<FabricClientCommandSource> AUTOMATION_SUGGESTIONS = (context, builder) -> {
         DiscordWebSocketServer server = DiscordWebSocketServer.getInstance();
-        if (server != null && server.isRunning()) {
-            server.requestAutomationsList();
-            List<String> names = server.getCachedAutomationNames();
-            return SharedSuggestionProvider.suggest(names, builder);
+        if (server != null && server.isRunning() && server.getConnectionCount() > 0) {
+            return server.requestAutomationsList()
+                .exceptionally(error -> server.getCachedAutomationNames())
+                .thenCompose(names -> SharedSuggestionProvider.suggest(names, builder));
         }
         return builder.buildFuture();
     };
@@ -92,6 +99,26 @@ public class DiscordCommand {
                         showTickTest(context.getSource());
                         return 1;
                     })
+                    .then(ClientCommandManager.literal("reset")
+                        .executes(context -> {
+                            resetTickTest(context.getSource());
+                            return 1;
+                        })
+                    )
+                    .then(ClientCommandManager.literal("phase")
+                        .then(ClientCommandManager.literal("start_of_tick")
+                            .executes(context -> {
+                                setSyncExecutionPhase(context.getSource(), ChatHandler.SyncExecutionPhase.START_OF_TICK);
+                                return 1;
+                            })
+                        )
+                        .then(ClientCommandManager.literal("end_of_tick")
+                            .executes(context -> {
+                                setSyncExecutionPhase(context.getSource(), ChatHandler.SyncExecutionPhase.END_OF_TICK);
+                                return 1;
+                            })
+                        )
+                    )
                 )
                 .then(ClientCommandManager.literal("run")
                     .then(ClientCommandManager.argument("automation", StringArgumentType.greedyString())
@@ -178,6 +205,116 @@ public class DiscordCommand {
                             })
                         )
                     )
+                    .then(ClientCommandManager.literal("batch")
+                        .then(ClientCommandManager.literal("enable")
+                            .executes(context -> {
+                                setRelayBatchEnabled(context.getSource(), true);
+                                return 1;
+                            })
+                        )
+                        .then(ClientCommandManager.literal("disable")
+                            .executes(context -> {
+                                setRelayBatchEnabled(context.getSource(), false);
+                                return 1;
+                            })
+                        )
+                    )
+                )
+                .then(ClientCommandManager.literal("compression")
+                    .executes(context -> {
+                        showCompression(context.getSource());
+                        return 1;
+                    })
+                    .then(ClientCommandManager.literal("enable")
+                        .executes(context -> {
+                            setCompressionEnabled(context.getSource(), true);
+                            return 1;
+                        })
+                    )
+                    .then(ClientCommandManager.literal("disable")
+                        .executes(context -> {
+                            setCompressionEnabled(context.getSource(), false);
+                            return 1;
+                        })
+                    )
+                    .then(ClientCommandManager.literal("threshold")
+                        .then(ClientCommandManager.argument("bytes", IntegerArgumentType.integer(16, 65536))
+                            .executes(context -> {
+                                setCompressionThreshold(context.getSource(), IntegerArgumentType.getInteger(context, "bytes"));
+                                return 1;
+                            })
+                        )
+                    )
+                )
+                .then(ClientCommandManager.literal("queue")
+                    .executes(context -> {
+                        showQueue(context.getSource());
+                        return 1;
+                    })
+                    .then(ClientCommandManager.literal("budget")
+                        .then(ClientCommandManager.argument("bytes", IntegerArgumentType.integer(16384, 67108864))
+                            .executes(context -> {
+                                setQueueBudget(context.getSource(), IntegerArgumentType.getInteger(context, "bytes"));
+                                return 1;
+                            })
+                        )
+                    )
+                    .then(ClientCommandManager.literal("policy")
+                        .then(ClientCommandManager.literal("drop_oldest")
+                            .executes(context -> {
+                                setQueuePolicy(context.getSource(), BridgeConnection.OverflowPolicy.DROP_OLDEST);
+                                return 1;
+                            })
+                        )
+                        .then(ClientCommandManager.literal("disconnect")
+                            .executes(context -> {
+                                setQueuePolicy(context.getSource(), BridgeConnection.OverflowPolicy.DISCONNECT);
+                                return 1;
+                            })
+                        )
+                        .then(ClientCommandManager.literal("block")
+                            .executes(context -> {
+                                setQueuePolicy(context.getSource(), BridgeConnection.OverflowPolicy.BLOCK);
+                                return 1;
+                            })
+                        )
+                    )
+                )
+                .then(ClientCommandManager.literal("forward")
+                    .executes(context -> {
+                        showForwarding(context.getSource());
+                        return 1;
+                    })
+                    .then(ClientCommandManager.literal("linger")
+                        .then(ClientCommandManager.argument("ms", IntegerArgumentType.integer(0, 1000))
+                            .executes(context -> {
+                                setForwardLinger(context.getSource(), IntegerArgumentType.getInteger(context, "ms"));
+                                return 1;
+                            })
+                        )
+                    )
+                    .then(ClientCommandManager.literal("batch")
+                        .then(ClientCommandManager.argument("messages", IntegerArgumentType.integer(1, 256))
+                            .executes(context -> {
+                                setForwardMaxBatch(context.getSource(), IntegerArgumentType.getInteger(context, "messages"));
+                                return 1;
+                            })
+                        )
+                    )
+                    .then(ClientCommandManager.literal("policy")
+                        .then(ClientCommandManager.literal("drop_oldest")
+                            .executes(context -> {
+                                setForwardPolicy(context.getSource(), LingerBatcher.OverflowPolicy.DROP_OLDEST);
+                                return 1;
+                            })
+                        )
+                        .then(ClientCommandManager.literal("drop_newest")
+                            .executes(context -> {
+                                setForwardPolicy(context.getSource(), LingerBatcher.OverflowPolicy.DROP_NEWEST);
+                                return 1;
+                            })
+                        )
+                    )
                 )
                 .then(ClientCommandManager.literal("ratelimit")
                     .executes(context -> {
@@ -190,6 +327,46 @@ public class DiscordCommand {
                             return 1;
                         })
                     )
+                    .then(ClientCommandManager.literal("burst")
+                        .then(ClientCommandManager.argument("tokens", IntegerArgumentType.integer(1, 600))
+                            .executes(context -> {
+                                setRateLimitBurst(
+                                        context.getSource(),
+                                        IntegerArgumentType.getInteger(context, "tokens")
+                                );
+                                return 1;
+                            })
+                        )
+                    )
+                    .then(ClientCommandManager.literal("queue")
+                        .then(ClientCommandManager.argument("messages", IntegerArgumentType.integer(0, 500))
+                            .executes(context -> {
+                                setRateLimitQueueSize(
+                                        context.getSource(),
+                                        IntegerArgumentType.getInteger(context, "messages")
+                                );
+                                return 1;
+                            })
+                        )
+                    )
+                    .then(ClientCommandManager.literal("weight")
+                        .then(ClientCommandManager.literal("interactive")
+                            .then(ClientCommandManager.argument("weight", IntegerArgumentType.integer(1, 100))
+                                .executes(context -> {
+                                    setSendWeight(context.getSource(), false, IntegerArgumentType.getInteger(context, "weight"));
+                                    return 1;
+                                })
+                            )
+                        )
+                        .then(ClientCommandManager.literal("automation")
+                            .then(ClientCommandManager.argument("weight", IntegerArgumentType.integer(1, 100))
+                                .executes(context -> {
+                                    setSendWeight(context.getSource(), true, IntegerArgumentType.getInteger(context, "weight"));
+                                    return 1;
+                                })
+                            )
+                        )
+                    )
                     .then(ClientCommandManager.argument("messagesPerMinute", IntegerArgumentType.integer(1, 600))
                         .executes(context -> {
                             setRateLimit(
@@ -230,6 +407,16 @@ public class DiscordCommand {
             status.append("§aServer: Running§r\n");
             status.append(String.format("§7Port: §f%d§r\n", server.getPort()));
             status.append(String.format("§7Connected clients: §f%d§r", server.getConnectionCount()));
+            for (BridgeConnection connection : server.getBridgeConnections()) {
+                status.append(String.format(
+                        "\n§7 - %s (%s): §f%.1f KiB§7 queued in §f%d§7 frames, §f%d§7 dropped§r",
+                        connection.getSocket().getRemoteSocketAddress(),
+                        connection.getWireFormat(),
+                        connection.getQueuedBytes() / 1024.0,
+                        connection.getQueuedFrames(),
+                        connection.getDroppedFrames()
+                ));
+            }
         } else {
             if (config.isRelayEnabled()) {
                 status.append("§eWebSocket Bridge: Stopped (optional in relay mode)§r");
@@ -252,11 +439,19 @@ public class DiscordCommand {
         ));
         status.append(
                 String.format(
-                        "\n§7Rate Limit: §f%d/%d per minute§r",
-                        ChatHandler.getInstance().getDiscordRateLimitUsage(),
-                        config.getMaxDiscordMessagesPerMinute()
+                        "\n§7Rate Limit: §f%d per minute§7, §f%d/%d§7 burst tokens, §f%d§7 queued§r",
+                        config.getMaxDiscordMessagesPerMinute(),
+                        ChatHandler.getInstance().getRateLimitTokens(),
+                        ChatHandler.getInstance().getRateLimitBurst(),
+                        ChatHandler.getInstance().getPacedMessageCount()
                 )
         );
+        for (ChatHandler.FilterStats filter : ChatHandler.getInstance().getFilterStats()) {
+            status.append(String.format(
+                    "\n§7%s: §f%d/%d§7 tracked, §f%d§7 hits, §f%d§7 misses, §f%d§7 evicted§r",
+                    filter.name(), filter.size(), filter.capacity(), filter.hits(), filter.misses(), filter.evictions()
+            ));
+        }
         
         source.sendFeedback(Component.literal(status.toString()));
     }
@@ -327,9 +522,9 @@ public class DiscordCommand {
         DiscordWebSocketServer.createInstance(port);
         DiscordWebSocketServer newServer = DiscordWebSocketServer.getInstance();
         
-        newServer.setMessageHandler(message -> ChatHandler.getInstance().handleDiscordMessage(message));
+        newServer.setMessageHandler((connection, messages) -> ChatHandler.getInstance().handleDiscordMessages(connection, messages));
         
-        new Thread(() -> {
+        ModRuntime.getInstance().execute(() -> {
             try {
                 newServer.start();
                 source.sendFeedback(Component.literal(
@@ -340,7 +535,7 @@ public class DiscordCommand {
                     String.format("§cFailed to start server: %s§r", e.getMessage())
                 ));
             }
-        }, "Discord-WebSocket-Server").start();
+        });
     }
     
     private static void disconnect(FabricClientCommandSource source) {
@@ -399,6 +594,7 @@ public class DiscordCommand {
         message.append(String.format("§7Server Tick: §f%d§r\n", serverTick));
         message.append(String.format("§7Client Time: §f%d§r ms\n", clientTimeMs));
         message.append(String.format("§7Sync Group: §f%s§r\n", syncGroup != null ? syncGroup : "none"));
+        message.append(String.format("§7Scheduled Messages: §f%d§r\n", ChatHandler.getInstance().getScheduledMessageCount()));
         
         if (execInfo != null) {
             long targetTick = execInfo[0];
@@ -414,9 +610,38 @@ public class DiscordCommand {
             message.append(String.format("§7Waited: §f%d§r ms", execTime - receiveTime));
         }
         
+        LatencyHistogram lateness = ChatHandler.getInstance().getTickLateness();
+        LatencyHistogram delay = ChatHandler.getInstance().getSyncDelayMicros();
+        message.append(String.format("\n§6--- Sync Lateness (§f%d§6 messages, %s) ---§r",
+                lateness.getCount(), ModConfig.getInstance().getSyncExecutionPhase()));
+        if (lateness.getCount() > 0) {
+            message.append(String.format("\n§7Ticks late: p50 §f%d§7 p90 §f%d§7 p99 §f%d§7 max §f%d§r",
+                    lateness.getValueAtPercentile(50), lateness.getValueAtPercentile(90),
+                    lateness.getValueAtPercentile(99), lateness.getMax()));
+            message.append(String.format("\n§7Delay: p50 §f%.1f§7 p90 §f%.1f§7 p99 §f%.1f§7 max §f%.1f§7 ms§r",
+                    delay.getValueAtPercentile(50) / 1000.0, delay.getValueAtPercentile(90) / 1000.0,
+                    delay.getValueAtPercentile(99) / 1000.0, delay.getMax() / 1000.0));
+        }
+        
         source.sendFeedback(Component.literal(message.toString()));
     }
     
+    private static void resetTickTest(FabricClientCommandSource source) {
+        ChatHandler.getInstance().getTickLateness().reset();
+        ChatHandler.getInstance().getSyncDelayMicros().reset();
+        source.sendFeedback(Component.literal("§aSync lateness statistics reset.§r"));
+    }
+    
+    private static void setSyncExecutionPhase(FabricClientCommandSource source, ChatHandler.SyncExecutionPhase phase) {
+        ModConfig config = ModConfig.getInstance();
+        config.setSyncExecutionPhase(phase.configName());
+        config.save();
+        
+        source.sendFeedback(Component.literal(
+                String.format("§aSynced messages now run at §f%s§r", phase.configName())
+        ));
+    }
+    
     private static void runAutomation(FabricClientCommandSource source, String automationName) {
         DiscordWebSocketServer server = DiscordWebSocketServer.getInstance();
         
@@ -431,20 +656,7 @@ public class DiscordCommand {
         }
         
         source.sendFeedback(Component.literal(String.format("§6Running automation: §f%s§6...§r", automationName)));
-        server.runAutomation(automationName);
-        
-        new Thread(() -> {
-            try {
-                Thread.sleep(500);
-                String result = server.getAndClearAutomationResult();
-                if (result != null) {
-                    Minecraft client = Minecraft.getInstance();
-                    if (client != null && client.player != null) {
-                        client.execute(() -> client.player.displayClientMessage(Component.literal(result), false));
-                    }
-                }
-            } catch (InterruptedException ignored) {}
-        }, "Automation-Result-Wait").start();
+        server.runAutomation(automationName).whenComplete(DiscordCommand::showAutomationReply);
     }
     
     private static void stopAutomations(FabricClientCommandSource source) {
@@ -461,20 +673,7 @@ public class DiscordCommand {
         }
         
         source.sendFeedback(Component.literal("§6Stopping automations...§r"));
-        server.stopAutomations();
-        
-        new Thread(() -> {
-            try {
-                Thread.sleep(300);
-                String result = server.getAndClearAutomationResult();
-                if (result != null) {
-                    Minecraft client = Minecraft.getInstance();
-                    if (client != null && client.player != null) {
-                        client.execute(() -> client.player.displayClientMessage(Component.literal(result), false));
-                    }
-                }
-            } catch (InterruptedException ignored) {}
-        }, "Automation-Stop-Wait").start();
+        server.stopAutomations().whenComplete(DiscordCommand::showAutomationReply);
     }
     
     private static void listAutomations(FabricClientCommandSource source) {
@@ -490,30 +689,43 @@ public class DiscordCommand {
             return;
         }
         
-        server.requestAutomationsList();
-        
-        new Thread(() -> {
-            try {
-                Thread.sleep(300);
-                List<String> names = server.getCachedAutomationNames();
-                Minecraft client = Minecraft.getInstance();
-                if (client != null && client.player != null) {
-                    client.execute(() -> {
-                        if (names.isEmpty()) {
-                            client.player.displayClientMessage(Component.literal("§7No automations configured in Discord plugin."), false);
-                        } else {
-                            StringBuilder sb = new StringBuilder();
-                            sb.append("§6=== Available Automations ===§r\n");
-                            for (String name : names) {
-                                sb.append("§7• §f").append(name).append("§r\n");
-                            }
-                            sb.append("§7Use §f/discordchat run <name>§7 to run an automation.");
-                            client.player.displayClientMessage(Component.literal(sb.toString()), false);
-                        }
-                    });
+        server.requestAutomationsList().whenComplete((names, error) -> {
+            if (error != null) {
+                showAutomationReply(null, error);
+                return;
+            }
+            
+            if (names.isEmpty()) {
+                showAutomationReply("§7No automations configured in Discord plugin.", null);
+            } else {
+                StringBuilder sb = new StringBuilder();
+                sb.append("§6=== Available Automations ===§r\n");
+                for (String name : names) {
+                    sb.append("§7• §f").append(name).append("§r\n");
                 }
-            } catch (InterruptedException ignored) {}
-        }, "Automations-List-Wait").start();
+                sb.append("§7Use §f/discordchat run <name>§7 to run an automation.");
+                showAutomationReply(sb.toString(), null);
+            }
+        });
+    }
+    
+    private static void showAutomationReply(String message, Throwable error) {
+        Minecraft client = Minecraft.getInstance();
+        if (client == null) return;
+        
+        String text;
+        if (error == null) {
+            text = message;
+        } else {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            text = cause instanceof TimeoutException
+                ? "§cNo reply from the Discord plugin.§r"
+                : String.format("§cAutomation request failed: %s§r", cause.getMessage());
+        }
+        
+        client.execute(() -> {
+            if (client.player != null) client.player.displayClientMessage(Component.literal(text), false);
+        });
     }
     
     private static void showRelayStatus(FabricClientCommandSource source) {
@@ -525,6 +737,7 @@ public class DiscordCommand {
         message.append(String.format("§7URL: §f%s§r\n", config.getRelayUrl().isBlank() ? "(not set)" : config.getRelayUrl()));
         message.append(String.format("§7Token: §f%s§r\n", config.getRelayToken().isBlank() ? "Not set" : "Configured"));
         message.append(String.format("§7Timeout: §f%d ms§r\n", config.getRelayTimeoutMs()));
+        message.append(String.format("§7Batched requests: §f%s§r\n", config.isRelayBatchEnabled() ? "Yes" : "No"));
         message.append("§7Commands: §f/discordchat relay url <url>§7, §f/discordchat relay enable§7");
         
         source.sendFeedback(Component.literal(message.toString()));
@@ -614,15 +827,167 @@ public class DiscordCommand {
         ));
     }
     
+    private static void setRelayBatchEnabled(FabricClientCommandSource source, boolean enabled) {
+        ModConfig config = ModConfig.getInstance();
+        config.setRelayBatchEnabled(enabled);
+        config.save();
+        
+        source.sendFeedback(Component.literal(String.format("§aBatched relay requests %s§r", enabled ? "enabled" : "disabled")));
+    }
+    
+    private static void showCompression(FabricClientCommandSource source) {
+        ModConfig config = ModConfig.getInstance();
+        source.sendFeedback(Component.literal(
+                String.format(
+                        "§6Bridge compression: §f%s§r\n§7Minimum payload: §f%d bytes§r\n§7Set with §f/discordchat compression enable|disable|threshold <bytes>§7.",
+                        config.isBridgeCompressionEnabled() ? "Enabled" : "Disabled",
+                        config.getBridgeCompressionMinBytes()
+                )
+        ));
+    }
+    
+    private static void setCompressionEnabled(FabricClientCommandSource source, boolean enabled) {
+        ModConfig config = ModConfig.getInstance();
+        config.setBridgeCompressionEnabled(enabled);
+        config.save();
+        
+        source.sendFeedback(Component.literal(String.format(
+                "§aBridge compression %s.§r\n§7Use §f/discordchat reconnect§7 to apply it to the WebSocket server.",
+                enabled ? "enabled" : "disabled"
+        )));
+    }
+    
+    private static void setCompressionThreshold(FabricClientCommandSource source, int bytes) {
+        ModConfig config = ModConfig.getInstance();
+        config.setBridgeCompressionMinBytes(bytes);
+        config.save();
+        
+        source.sendFeedback(Component.literal(String.format(
+                "§aBridge compression threshold set to §f%d bytes§a.§r\n§7Use §f/discordchat reconnect§7 to apply it to the WebSocket server.",
+                bytes
+        )));
+    }
+    
+    private static void showQueue(FabricClientCommandSource source) {
+        ModConfig config = ModConfig.getInstance();
+        source.sendFeedback(Component.literal(
+                String.format(
+                        "§6Bridge outbound queue: §f%d KiB§6 per client§r\n§7Overflow policy: §f%s§r\n§7Set with §f/discordchat queue budget <bytes>§7 or §f/discordchat queue policy <drop_oldest|disconnect|block>§7.",
+                        config.getBridgeQueueMaxBytes() / 1024,
+                        config.getBridgeOverflowPolicy()
+                )
+        ));
+    }
+    
+    private static void setQueueBudget(FabricClientCommandSource source, int bytes) {
+        ModConfig config = ModConfig.getInstance();
+        config.setBridgeQueueMaxBytes(bytes);
+        config.save();
+        
+        source.sendFeedback(Component.literal(
+                String.format("§aBridge outbound queue budget set to §f%d bytes§r", bytes)
+        ));
+    }
+    
+    private static void setQueuePolicy(FabricClientCommandSource source, BridgeConnection.OverflowPolicy policy) {
+        ModConfig config = ModConfig.getInstance();
+        config.setBridgeOverflowPolicy(policy.configName());
+        config.save();
+        
+        source.sendFeedback(Component.literal(
+                String.format("§aBridge overflow policy set to §f%s§r", policy.configName())
+        ));
+    }
+    
+    private static void showForwarding(FabricClientCommandSource source) {
+        ModConfig config = ModConfig.getInstance();
+        LingerBatcher<ChatHandler.ForwardedMessage> forwarder = ChatHandler.getInstance().getForwarder();
+        LatencyHistogram batchSizes = forwarder.getBatchSizes();
+        ChatIntake intake = ChatIntake.getInstance();
+        LatencyHistogram handoffMicros = intake.getHandoffMicros();
+        source.sendFeedback(Component.literal(
+                String.format(
+                        "§6Minecraft → Discord forwarding§r\n" +
+                        "§7Intake: §f%d/%d§7 queued, dropped: §f%d§r\n" +
+                        "§7Render thread per line p50/p99/max: §f%d/%d/%d ns§7, hand-off p50/p99: §f%d/%d µs§r\n" +
+                        "§7Linger: §f%d ms§7, max batch: §f%d§7, overflow: §f%s§r\n" +
+                        "§7Queued: §f%d/%d§7, dropped: §f%d§r\n" +
+                        "§7Batches: §f%d§7, size p50/max: §f%d/%d§7, mean §f%.1f§r\n" +
+                        "§7Set with §f/discordchat forward linger <0-1000>§7, §fbatch <1-256>§7 or §fpolicy <drop_oldest|drop_newest>§7.",
+                        intake.getQueuedCount(),
+                        intake.getCapacity(),
+                        intake.getDroppedCount(),
+                        intake.getPublishNanosAtPercentile(50),
+                        intake.getPublishNanosAtPercentile(99),
+                        intake.getPublishNanosMax(),
+                        handoffMicros.getValueAtPercentile(50),
+                        handoffMicros.getValueAtPercentile(99),
+                        config.getForwardLingerMs(),
+                        config.getForwardMaxBatch(),
+                        config.getForwardOverflowPolicy(),
+                        forwarder.getQueuedCount(),
+                        forwarder.getCapacity(),
+                        forwarder.getDroppedCount(),
+                        batchSizes.getCount(),
+                        batchSizes.getValueAtPercentile(50),
+                        batchSizes.getMax(),
+                        batchSizes.getMean()
+                )
+        ));
+    }
+    
+    private static void setForwardLinger(FabricClientCommandSource source, int lingerMs) {
+        ModConfig config = ModConfig.getInstance();
+        config.setForwardLingerMs(lingerMs);
+        config.save();
+        
+        source.sendFeedback(Component.literal(String.format("§aForwarding linger set to §f%d ms§a.§r", lingerMs)));
+    }
+    
+    private static void setForwardMaxBatch(FabricClientCommandSource source, int messages) {
+        ModConfig config = ModConfig.getInstance();
+        config.setForwardMaxBatch(messages);
+        config.save();
+        
+        source.sendFeedback(Component.literal(String.format("§aForwarding batch size set to §f%d§a messages.§r", messages)));
+    }
+    
+    private static void setForwardPolicy(FabricClientCommandSource source, LingerBatcher.OverflowPolicy policy) {
+        ModConfig config = ModConfig.getInstance();
+        config.setForwardOverflowPolicy(policy.configName());
+        config.save();
+        
+        source.sendFeedback(Component.literal(String.format("§aForwarding overflow policy set to §f%s§r", policy.configName())));
+    }
+    
     private static void showRateLimit(FabricClientCommandSource source) {
         ModConfig config = ModConfig.getInstance();
-        int usage = ChatHandler.getInstance().getDiscordRateLimitUsage();
-        int limit = config.getMaxDiscordMessagesPerMinute();
+        ChatHandler chatHandler = ChatHandler.getInstance();
+        LatencyHistogram pacedWait = chatHandler.getPacedWaitMicros();
         source.sendFeedback(Component.literal(
                 String.format(
-                        "§6Discord send rate limit: §f%d/%d per minute§r\n§7Set with §f/discordchat ratelimit <1-600>§7.",
-                        usage,
-                        limit
+                        "§6Discord send rate limit: §f%d per minute§6, burst §f%d§r\n" +
+                        "§7Tokens available: §f%d/%d§r\n" +
+                        "§7Queue: §f%d/%d§7 waiting from §f%d§7 sources, oldest §f%d ms§r\n" +
+                        "§7Weights: §f%d§7 interactive, §f%d§7 automation§r\n" +
+                        "§7Wait (p50/p99/max): §f%.0f/%.0f/%.0f ms§7 over §f%d§7 messages§r\n" +
+                        "§7Dropped: §f%d§r\n" +
+                        "§7Set with §f/discordchat ratelimit <1-600>§7, §fburst <1-600>§7, §fqueue <0-500>§7 and §fweight <interactive|automation> <1-100>§7.",
+                        config.getMaxDiscordMessagesPerMinute(),
+                        config.getRateLimitBurst(),
+                        chatHandler.getRateLimitTokens(),
+                        chatHandler.getRateLimitBurst(),
+                        chatHandler.getPacedMessageCount(),
+                        config.getRateLimitQueueSize(),
+                        chatHandler.getPacedSourceCount(),
+                        chatHandler.getOldestPacedWaitMs(),
+                        config.getInteractiveSendWeight(),
+                        config.getAutomationSendWeight(),
+                        pacedWait.getValueAtPercentile(50) / 1000.0,
+                        pacedWait.getValueAtPercentile(99) / 1000.0,
+                        pacedWait.getMax() / 1000.0,
+                        pacedWait.getCount(),
+                        chatHandler.getRateLimitDrops()
                 )
         ));
     }
@@ -642,6 +1007,37 @@ public class DiscordCommand {
         ));
     }
     
+    private static void setRateLimitBurst(FabricClientCommandSource source, int tokens) {
+        ModConfig config = ModConfig.getInstance();
+        config.setRateLimitBurst(tokens);
+        config.save();
+        
+        source.sendFeedback(Component.literal(String.format("§aDiscord send burst set to §f%d§a messages.§r", tokens)));
+    }
+    
+    private static void setRateLimitQueueSize(FabricClientCommandSource source, int messages) {
+        ModConfig config = ModConfig.getInstance();
+        config.setRateLimitQueueSize(messages);
+        config.save();
+        
+        source.sendFeedback(Component.literal(messages == 0
+                ? "§aDiscord send queue disabled; messages over the rate limit are dropped.§r"
+                : String.format("§aUp to §f%d§a messages over the rate limit will wait in the send queue.§r", messages)));
+    }
+    
+    private static void setSendWeight(FabricClientCommandSource source, boolean automation, int weight) {
+        ModConfig config = ModConfig.getInstance();
+        if (automation) {
+            config.setAutomationSendWeight(weight);
+        } else {
+            config.setInteractiveSendWeight(weight);
+        }
+        config.save();
+        
+        source.sendFeedback(Component.literal(String.format(
+                "§a%s send weight set to §f%d§a.§r", automation ? "Automation" : "Interactive", weight)));
+    }
+    
     private static boolean isValidRelayUrl(String relayUrl) {
         try {
             URI uri = URI.create(relayUrl);
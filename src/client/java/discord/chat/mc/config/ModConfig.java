@@ -22,8 +22,21 @@ public class ModConfig {
     private String relayToken = "";
     private int relayTimeoutMs = 4000;
     private String relayClientId = UUID.randomUUID().toString();
+    private Boolean relayBatchEnabled = false;
     private int maxDiscordMessagesPerMinute = 45;
+    private int rateLimitBurst = 5;
+    private int rateLimitQueueSize = 20;
+    private int interactiveSendWeight = 4;
+    private int automationSendWeight = 1;
     private Boolean localChatToDiscord = true;
+    private Boolean bridgeCompressionEnabled = false;
+    private int bridgeCompressionMinBytes = 256;
+    private int bridgeQueueMaxBytes = 1048576;
+    private String bridgeOverflowPolicy = "drop_oldest";
+    private String syncExecutionPhase = "end_of_tick";
+    private int forwardLingerMs = 50;
+    private int forwardMaxBatch = 32;
+    private String forwardOverflowPolicy = "drop_oldest";
     private transient Path configPath;
     
     public static ModConfig getInstance() {
@@ -86,9 +99,44 @@ public class ModConfig {
         if (maxDiscordMessagesPerMinute < 1 || maxDiscordMessagesPerMinute > 600) {
             maxDiscordMessagesPerMinute = 45;
         }
+        if (rateLimitBurst < 1 || rateLimitBurst > 600) {
+            rateLimitBurst = 5;
+        }
+        if (rateLimitQueueSize < 0 || rateLimitQueueSize > 500) {
+            rateLimitQueueSize = 20;
+        }
+        if (interactiveSendWeight < 1 || interactiveSendWeight > 100) {
+            interactiveSendWeight = 4;
+        }
+        if (automationSendWeight < 1 || automationSendWeight > 100) {
+            automationSendWeight = 1;
+        }
         if (localChatToDiscord == null) {
             localChatToDiscord = true;
         }
+        if (relayBatchEnabled == null) relayBatchEnabled = false;
+        if (bridgeCompressionEnabled == null) bridgeCompressionEnabled = false;
+        if (bridgeCompressionMinBytes < 16 || bridgeCompressionMinBytes > 65536) {
+            bridgeCompressionMinBytes = 256;
+        }
+        if (bridgeQueueMaxBytes < 16384 || bridgeQueueMaxBytes > 67108864) {
+            bridgeQueueMaxBytes = 1048576;
+        }
+        if (!"drop_oldest".equals(bridgeOverflowPolicy) && !"disconnect".equals(bridgeOverflowPolicy) && !"block".equals(bridgeOverflowPolicy)) {
+            bridgeOverflowPolicy = "drop_oldest";
+        }
+        if (!"start_of_tick".equals(syncExecutionPhase) && !"end_of_tick".equals(syncExecutionPhase)) {
+            syncExecutionPhase = "end_of_tick";
+        }
+        if (forwardLingerMs < 0 || forwardLingerMs > 1000) {
+            forwardLingerMs = 50;
+        }
+        if (forwardMaxBatch < 1 || forwardMaxBatch > 256) {
+            forwardMaxBatch = 32;
+        }
+        if (!"drop_oldest".equals(forwardOverflowPolicy) && !"drop_newest".equals(forwardOverflowPolicy)) {
+            forwardOverflowPolicy = "drop_oldest";
+        }
     }
     
     public int getPort() { return port; }
@@ -108,10 +156,49 @@ public class ModConfig {
     
     public String getRelayClientId() { return relayClientId; }
     public void setRelayClientId(String relayClientId) { this.relayClientId = relayClientId != null ? relayClientId.trim() : ""; }
+    
+    public boolean isRelayBatchEnabled() { return relayBatchEnabled != null && relayBatchEnabled; }
+    public void setRelayBatchEnabled(boolean relayBatchEnabled) { this.relayBatchEnabled = relayBatchEnabled; }
 
     public int getMaxDiscordMessagesPerMinute() { return maxDiscordMessagesPerMinute; }
     public void setMaxDiscordMessagesPerMinute(int maxDiscordMessagesPerMinute) { this.maxDiscordMessagesPerMinute = maxDiscordMessagesPerMinute; }
     
+    public int getRateLimitBurst() { return rateLimitBurst; }
+    public void setRateLimitBurst(int rateLimitBurst) { this.rateLimitBurst = rateLimitBurst; }
+    
+    public int getRateLimitQueueSize() { return rateLimitQueueSize; }
+    public void setRateLimitQueueSize(int rateLimitQueueSize) { this.rateLimitQueueSize = rateLimitQueueSize; }
+    
+    public int getInteractiveSendWeight() { return interactiveSendWeight; }
+    public void setInteractiveSendWeight(int interactiveSendWeight) { this.interactiveSendWeight = interactiveSendWeight; }
+    
+    public int getAutomationSendWeight() { return automationSendWeight; }
+    public void setAutomationSendWeight(int automationSendWeight) { this.automationSendWeight = automationSendWeight; }
+    
     public boolean isLocalChatToDiscord() { return localChatToDiscord != null && localChatToDiscord; }
     public void setLocalChatToDiscord(boolean localChatToDiscord) { this.localChatToDiscord = localChatToDiscord; }
+    
+    public boolean isBridgeCompressionEnabled() { return bridgeCompressionEnabled != null && bridgeCompressionEnabled; }
+    public void setBridgeCompressionEnabled(boolean bridgeCompressionEnabled) { this.bridgeCompressionEnabled = bridgeCompressionEnabled; }
+    
+    public int getBridgeCompressionMinBytes() { return bridgeCompressionMinBytes; }
+    public void setBridgeCompressionMinBytes(int bridgeCompressionMinBytes) { this.bridgeCompressionMinBytes = bridgeCompressionMinBytes; }
+    
+    public int getBridgeQueueMaxBytes() { return bridgeQueueMaxBytes; }
+    public void setBridgeQueueMaxBytes(int bridgeQueueMaxBytes) { this.bridgeQueueMaxBytes = bridgeQueueMaxBytes; }
+    
+    public String getBridgeOverflowPolicy() { return bridgeOverflowPolicy != null ? bridgeOverflowPolicy : "drop_oldest"; }
+    public void setBridgeOverflowPolicy(String bridgeOverflowPolicy) { this.bridgeOverflowPolicy = bridgeOverflowPolicy; }
+    
+    public String getSyncExecutionPhase() { return syncExecutionPhase != null ? syncExecutionPhase : "end_of_tick"; }
+    public void setSyncExecutionPhase(String syncExecutionPhase) { this.syncExecutionPhase = syncExecutionPhase; }
+    
+    public int getForwardLingerMs() { return forwardLingerMs; }
+    public void setForwardLingerMs(int forwardLingerMs) { this.forwardLingerMs = forwardLingerMs; }
+    
+    public int getForwardMaxBatch() { return forwardMaxBatch; }
+    public void setForwardMaxBatch(int forwardMaxBatch) { this.forwardMaxBatch = forwardMaxBatch; }
+    
+    public String getForwardOverflowPolicy() { return forwardOverflowPolicy != null ? forwardOverflowPolicy : "drop_oldest"; }
+    public void setForwardOverflowPolicy(String forwardOverflowPolicy) { this.forwardOverflowPolicy = forwardOverflowPolicy; }
 }
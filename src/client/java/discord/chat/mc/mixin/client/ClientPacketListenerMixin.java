@@ -1,19 +1,27 @@
 package discord.chat.mc.mixin.client;
 
+import com.mojang.authlib.GameProfile;
 import discord.chat.mc.chat.ChatHandler;
+import discord.chat.mc.chat.PlayerProfileCache;
 import discord.chat.mc.config.ModConfig;
 import net.minecraft.client.multiplayer.ClientPacketListener;
+import net.minecraft.client.multiplayer.PlayerInfo;
+import net.minecraft.network.protocol.game.ClientboundPlayerInfoRemovePacket;
+import net.minecraft.network.protocol.game.ClientboundPlayerInfoUpdatePacket;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Mixin(ClientPacketListener.class)
 public class ClientPacketListenerMixin {
     @Inject(method = "sendChat", at = @At("HEAD"), cancellable = true)
     private void onSendChat(String message, CallbackInfo ci) {
         ChatHandler chatHandler = ChatHandler.getInstance();
-        if (chatHandler.consumeServerChatPacketBypass()) {
+        if (chatHandler.consumeChatSendToken(message)) {
             return;
         }
         
@@ -35,4 +43,22 @@ public class ClientPacketListenerMixin {
         
         chatHandler.markLocalServerOnlyOutgoingMessage(normalized);
     }
+    
+    @Inject(method = "handlePlayerInfoUpdate", at = @At("TAIL"))
+    private void onPlayerInfoUpdate(ClientboundPlayerInfoUpdatePacket packet, CallbackInfo ci) {
+        if (packet.newEntries().isEmpty()) return;
+        
+        ClientPacketListener listener = (ClientPacketListener) (Object) this;
+        List<GameProfile> profiles = new ArrayList<>(packet.newEntries().size());
+        for (ClientboundPlayerInfoUpdatePacket.Entry entry : packet.newEntries()) {
+            PlayerInfo info = listener.getPlayerInfo(entry.profileId());
+            if (info != null) profiles.add(info.getProfile());
+        }
+        PlayerProfileCache.getInstance().track(profiles);
+    }
+    
+    @Inject(method = "handlePlayerInfoRemove", at = @At("TAIL"))
+    private void onPlayerInfoRemove(ClientboundPlayerInfoRemovePacket packet, CallbackInfo ci) {
+        PlayerProfileCache.getInstance().forget(packet.profileIds());
+    }
 }
@@ -5,7 +5,10 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import discord.chat.mc.DiscordChatIntegration;
 import discord.chat.mc.chat.ChatHandler;
+import discord.chat.mc.chat.ChatLineParser;
+import discord.chat.mc.chat.MessageDeduplicator;
 import discord.chat.mc.config.ModConfig;
+import discord.chat.mc.util.ModRuntime;
 import net.minecraft.client.Minecraft;
 import net.minecraft.network.chat.Component;
 
@@ -16,9 +19,8 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public final class RelayInboundPoller {
@@ -29,9 +31,13 @@ public final class RelayInboundPoller {
             .connectTimeout(Duration.ofSeconds(5))
             .build();
 
-    private ScheduledExecutorService pollExecutor;
+    private ScheduledFuture<?> nextPoll;
+    private long pollGeneration;
     private final AtomicBoolean running = new AtomicBoolean(false);
     private volatile long lastEventId = 0L;
+    private volatile String polledRelayUrl;
+    private volatile long highestEventId = 0L;
+    private volatile long relayEpoch;
 
     private RelayInboundPoller() {}
 
@@ -43,28 +49,38 @@ public final class RelayInboundPoller {
         if (running.get()) return;
 
         running.set(true);
-        if (pollExecutor == null || pollExecutor.isShutdown()) {
-            pollExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
-                Thread t = new Thread(r, "Discord-Relay-Inbound-Poller");
-                t.setDaemon(true);
-                return t;
-            });
-        }
-
-        pollExecutor.scheduleWithFixedDelay(this::pollOnce, 1500L, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        scheduleNextPoll(++pollGeneration);
         DiscordChatIntegration.LOGGER.info("Relay inbound poller started");
     }
 
     public synchronized void stop() {
         running.set(false);
-        if (pollExecutor != null) {
-            pollExecutor.shutdownNow();
-            pollExecutor = null;
+        if (nextPoll != null) {
+            nextPoll.cancel(false);
+            nextPoll = null;
         }
         lastEventId = 0L;
         DiscordChatIntegration.LOGGER.info("Relay inbound poller stopped");
     }
 
+    private synchronized void scheduleNextPoll(long generation) {
+        if (!running.get() || generation != pollGeneration) return;
+        try {
+            nextPoll = ModRuntime.getInstance().schedule(() -> pollAndReschedule(generation), POLL_INTERVAL_MS);
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            nextPoll = null;
+        }
+    }
+
+    private void pollAndReschedule(long generation) {
+        try {
+            pollOnce();
+        } finally {
+            scheduleNextPoll(generation);
+        }
+    }
+
     private void pollOnce() {
         if (!running.get()) return;
 
@@ -73,6 +89,11 @@ public final class RelayInboundPoller {
 
         String relayUrl = config.getRelayUrl();
         if (relayUrl.isBlank()) return;
+        if (!relayUrl.equals(polledRelayUrl)) {
+            polledRelayUrl = relayUrl;
+            lastEventId = 0L;
+            highestEventId = 0L;
+        }
 
         URI eventsUri;
         try {
@@ -103,6 +124,12 @@ public final class RelayInboundPoller {
             if (body.has("latestEventId")) {
                 try {
                     long latest = body.get("latestEventId").getAsLong();
+                    if (latest < highestEventId) {
+                        // The relay numbers events from 1 again after a restart; keep its new IDs apart from the old ones.
+                        relayEpoch++;
+                        highestEventId = latest;
+                        lastEventId = latest;
+                    }
                     if (latest > lastEventId) {
                         lastEventId = latest;
                     }
@@ -112,6 +139,7 @@ public final class RelayInboundPoller {
             if (!body.has("events") || !body.get("events").isJsonArray()) return;
 
             JsonArray events = body.getAsJsonArray("events");
+            MessageDeduplicator deduplicator = MessageDeduplicator.getInstance();
             for (int i = 0; i < events.size(); i++) {
                 if (!events.get(i).isJsonObject()) continue;
                 JsonObject event = events.get(i).getAsJsonObject();
@@ -121,11 +149,21 @@ public final class RelayInboundPoller {
                 if (eventId > lastEventId) {
                     lastEventId = eventId;
                 }
+                if (eventId > highestEventId) {
+                    highestEventId = eventId;
+                }
 
                 if (event.has("sourceClientId") && config.getRelayClientId().equals(event.get("sourceClientId").getAsString())) {
                     continue;
                 }
 
+                long now = System.currentTimeMillis();
+                if (!deduplicator.markSeen(MessageDeduplicator.relayEventKey(relayUrl + "#" + relayEpoch, eventId), now)) continue;
+                if (event.has("messageId") && !event.get("messageId").isJsonNull()
+                        && deduplicator.hasSeen(MessageDeduplicator.discordMessageKey(event.get("messageId").getAsString()), now)) {
+                    continue;
+                }
+
                 displayEvent(event);
             }
         } catch (Exception e) {
@@ -166,7 +204,7 @@ public final class RelayInboundPoller {
             return;
         }
 
-        String plainMessage = formattedMessage.replaceAll("\\u00A7.", "").trim();
+        String plainMessage = ChatLineParser.stripFormatting(formattedMessage);
 
         Minecraft client = Minecraft.getInstance();
         if (client == null) return;
@@ -1,8 +1,10 @@
 package discord.chat.mc.relay;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import discord.chat.mc.DiscordChatIntegration;
+import discord.chat.mc.chat.ChatHandler;
 import discord.chat.mc.config.ModConfig;
 
 import java.net.URI;
@@ -11,6 +13,8 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 public final class RelayService {
     private static final Gson GSON = new Gson();
@@ -22,6 +26,8 @@ public final class RelayService {
             .connectTimeout(Duration.ofSeconds(5))
             .build();
 
+    private volatile String batchUnsupportedUrl;
+
     private RelayService() {}
 
     public static RelayService getInstance() {
@@ -81,7 +87,7 @@ public final class RelayService {
                 });
     }
 
-    public void relayMinecraftMessage(String playerName, String message, String playerUuid, String skinUrl) {
+    public void relayMinecraftMessages(List<ChatHandler.ForwardedMessage> messages) {
         ModConfig config = ModConfig.getInstance();
         if (!config.isRelayEnabled()) return;
 
@@ -96,9 +102,35 @@ public final class RelayService {
             return;
         }
 
-        String safePlayerName = sanitize(playerName, "System", MAX_PLAYER_NAME_LENGTH);
-        String safeMessage = sanitize(message, "", MAX_MESSAGE_LENGTH);
-        if (safeMessage.isEmpty()) return;
+        List<JsonObject> payloads = new ArrayList<>(messages.size());
+        for (ChatHandler.ForwardedMessage message : messages) {
+            JsonObject payload = minecraftMessagePayload(message, config);
+            if (payload != null) payloads.add(payload);
+        }
+        if (payloads.isEmpty()) return;
+
+        if (payloads.size() == 1 || !config.isRelayBatchEnabled() || relayUrl.equals(batchUnsupportedUrl)) {
+            for (JsonObject payload : payloads) postMinecraftMessages(relayUri, payload, config, null);
+            return;
+        }
+
+        JsonArray batch = new JsonArray(payloads.size());
+        payloads.forEach(batch::add);
+        JsonObject payload = new JsonObject();
+        payload.addProperty("type", "minecraft_message_batch");
+        payload.addProperty("sourceClientId", config.getRelayClientId());
+        payload.add("messages", batch);
+        postMinecraftMessages(relayUri, payload, config, () -> {
+            // Relays without batch support get one request per message from now on.
+            batchUnsupportedUrl = relayUrl;
+            for (JsonObject single : payloads) postMinecraftMessages(relayUri, single, config, null);
+        });
+    }
+
+    private JsonObject minecraftMessagePayload(ChatHandler.ForwardedMessage message, ModConfig config) {
+        String safePlayerName = sanitize(message.playerName(), "System", MAX_PLAYER_NAME_LENGTH);
+        String safeMessage = sanitize(message.message(), "", MAX_MESSAGE_LENGTH);
+        if (safeMessage.isEmpty()) return null;
 
         JsonObject payload = new JsonObject();
         payload.addProperty("type", "minecraft_message");
@@ -106,14 +138,17 @@ public final class RelayService {
         payload.addProperty("message", safeMessage);
         payload.addProperty("timestamp", Instant.now().toString());
         payload.addProperty("sourceClientId", config.getRelayClientId());
-        if (playerUuid != null && !playerUuid.isBlank()) {
-            payload.addProperty("playerUuid", playerUuid);
+        if (message.playerUuid() != null && !message.playerUuid().isBlank()) {
+            payload.addProperty("playerUuid", message.playerUuid());
         }
-        String safeSkinUrl = sanitizeUrl(skinUrl);
+        String safeSkinUrl = sanitizeUrl(message.skinUrl());
         if (!safeSkinUrl.isEmpty()) {
             payload.addProperty("skinUrl", safeSkinUrl);
         }
+        return payload;
+    }
 
+    private void postMinecraftMessages(URI relayUri, JsonObject payload, ModConfig config, Runnable onRejected) {
         HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(relayUri)
                 .timeout(Duration.ofMillis(config.getRelayTimeoutMs()))
                 .header("Content-Type", "application/json")
@@ -126,10 +161,13 @@ public final class RelayService {
 
         httpClient.sendAsync(requestBuilder.build(), HttpResponse.BodyHandlers.ofString())
                 .thenAccept(response -> {
-                    if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                    int status = response.statusCode();
+                    if (onRejected != null && (status == 400 || status == 404 || status == 415 || status == 422)) {
+                        onRejected.run();
+                    } else if (status < 200 || status >= 300) {
                         DiscordChatIntegration.LOGGER.warn(
                                 "Relay request failed with status {}: {}",
-                                response.statusCode(),
+                                status,
                                 response.body()
                         );
                     }
@@ -0,0 +1,167 @@
+package discord.chat.mc.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Map whose entries expire a fixed time after they were last put, with a hard capacity. Entries
+ * are filed into time buckets in insertion order; whole buckets are dropped once they fall out
+ * of the window, so each entry is expired at most once and no operation sweeps the whole map.
+ * Over capacity, the oldest entries are evicted first. Lookups still check the exact age, so an
+ * entry never outlives the TTL by a bucket width.
+ */
+public final class ExpiringKeyCache<K, V> {
+    private static final int BUCKET_COUNT = 16;
+
+    private static final class Node<K, V> {
+        final K key;
+        final V value;
+        final long addedAtMs;
+
+        Node(K key, V value, long addedAtMs) {
+            this.key = key;
+            this.value = value;
+            this.addedAtMs = addedAtMs;
+        }
+    }
+
+    private record Bucket<K, V>(long startMs, ArrayDeque<Node<K, V>> nodes) {}
+
+    private final long ttlMs;
+    private final long bucketWidthMs;
+    private final int capacity;
+    private final Map<K, Node<K, V>> entries = new HashMap<>();
+    private final ArrayDeque<Bucket<K, V>> buckets = new ArrayDeque<>();
+    private int filedNodes;
+    private long hits;
+    private long misses;
+    private long expirations;
+    private long evictions;
+
+    public ExpiringKeyCache(long ttlMs, int capacity) {
+        if (ttlMs <= 0) throw new IllegalArgumentException("ttlMs must be positive");
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        this.ttlMs = ttlMs;
+        this.bucketWidthMs = Math.max(1, ttlMs / BUCKET_COUNT);
+        this.capacity = capacity;
+    }
+
+    /**
+     * Stores {@code value} under {@code key}, restarting its TTL, and returns the live value it
+     * replaced, if any.
+     */
+    public synchronized V put(K key, V value, long nowMs) {
+        expire(nowMs);
+        Node<K, V> previous = entries.put(key, file(key, value, nowMs));
+        enforceCapacity();
+        return isLive(previous, nowMs) ? previous.value : null;
+    }
+
+    /**
+     * Stores {@code value} unless {@code key} already has a live entry. Returns whether it was
+     * stored; a rejected put counts as a hit.
+     */
+    public synchronized boolean putIfAbsent(K key, V value, long nowMs) {
+        expire(nowMs);
+        if (isLive(entries.get(key), nowMs)) {
+            hits++;
+            return false;
+        }
+        misses++;
+        entries.put(key, file(key, value, nowMs));
+        enforceCapacity();
+        return true;
+    }
+
+    public synchronized V get(K key, long nowMs) {
+        expire(nowMs);
+        Node<K, V> node = entries.get(key);
+        if (isLive(node, nowMs)) {
+            hits++;
+            return node.value;
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Removes {@code key} and returns its value if the entry was still live.
+     */
+    public synchronized V remove(K key, long nowMs) {
+        expire(nowMs);
+        Node<K, V> node = entries.remove(key);
+        if (isLive(node, nowMs)) {
+            hits++;
+            return node.value;
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Removes {@code key} only while it still maps to {@code value}.
+     */
+    public synchronized boolean remove(K key, V value) {
+        Node<K, V> node = entries.get(key);
+        if (node == null || node.value != value) return false;
+        entries.remove(key);
+        return true;
+    }
+
+    public synchronized List<V> values(long nowMs) {
+        expire(nowMs);
+        List<V> values = new ArrayList<>(entries.size());
+        for (Node<K, V> node : entries.values()) {
+            if (isLive(node, nowMs)) values.add(node.value);
+        }
+        return values;
+    }
+
+    public synchronized int size() { return entries.size(); }
+    public int getCapacity() { return capacity; }
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getExpirations() { return expirations; }
+    public synchronized long getEvictions() { return evictions; }
+
+    private boolean isLive(Node<K, V> node, long nowMs) {
+        return node != null && nowMs - node.addedAtMs < ttlMs;
+    }
+
+    private Node<K, V> file(K key, V value, long nowMs) {
+        Node<K, V> node = new Node<>(key, value, nowMs);
+        Bucket<K, V> newest = buckets.peekLast();
+        if (newest == null || nowMs - newest.startMs() >= bucketWidthMs) {
+            newest = new Bucket<>(nowMs - Math.floorMod(nowMs, bucketWidthMs), new ArrayDeque<>());
+            buckets.addLast(newest);
+        }
+        newest.nodes().addLast(node);
+        filedNodes++;
+        return node;
+    }
+
+    private void expire(long nowMs) {
+        while (!buckets.isEmpty() && nowMs - buckets.peekFirst().startMs() >= ttlMs + bucketWidthMs) {
+            Bucket<K, V> bucket = buckets.pollFirst();
+            filedNodes -= bucket.nodes().size();
+            for (Node<K, V> node : bucket.nodes()) {
+                if (entries.remove(node.key, node)) expirations++;
+            }
+        }
+    }
+
+    private void enforceCapacity() {
+        // Replaced and removed entries stay filed until their bucket expires; bound those too so
+        // heavy churn on a few keys cannot grow the buckets past twice the capacity.
+        while (entries.size() > capacity || filedNodes > capacity * 2) {
+            Bucket<K, V> oldest = buckets.peekFirst();
+            Node<K, V> node = oldest.nodes().pollFirst();
+            filedNodes--;
+            if (oldest.nodes().isEmpty()) buckets.pollFirst();
+            if (entries.remove(node.key, node)) evictions++;
+        }
+    }
+}
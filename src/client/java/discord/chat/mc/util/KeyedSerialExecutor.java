@@ -0,0 +1,89 @@
+package discord.chat.mc.util;
+
+import discord.chat.mc.DiscordChatIntegration;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs tasks submitted under the same key one at a time and in submission order, while tasks
+ * under different keys still spread across the backing executor.
+ */
+public final class KeyedSerialExecutor {
+    private static final int MAX_TASKS_PER_TURN = 32;
+    
+    private final Executor backing;
+    private final ConcurrentHashMap<Object, Lane> lanes = new ConcurrentHashMap<>();
+    
+    public KeyedSerialExecutor(Executor backing) {
+        this.backing = backing;
+    }
+    
+    public void execute(Object key, Runnable task) {
+        boolean[] schedule = new boolean[1];
+        Lane lane = lanes.compute(key, (k, existing) -> {
+            Lane current = existing != null ? existing : new Lane(k);
+            current.tasks.add(task);
+            if (!current.scheduled) {
+                current.scheduled = true;
+                schedule[0] = true;
+            }
+            return current;
+        });
+        
+        if (schedule[0]) {
+            try {
+                backing.execute(lane);
+            } catch (RejectedExecutionException e) {
+                lanes.remove(key, lane);
+                throw e;
+            }
+        }
+    }
+    
+    public int getActiveLanes() { return lanes.size(); }
+    
+    private final class Lane implements Runnable {
+        private final Object key;
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        private boolean scheduled;
+        
+        Lane(Object key) {
+            this.key = key;
+        }
+        
+        @Override
+        public void run() {
+            for (int i = 0; i < MAX_TASKS_PER_TURN; i++) {
+                Runnable task = next();
+                if (task == null) return;
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    DiscordChatIntegration.LOGGER.error("Error in serial task: {}", e.getMessage());
+                }
+            }
+            
+            try {
+                backing.execute(this);
+            } catch (RejectedExecutionException e) {
+                lanes.remove(key, this);
+            }
+        }
+        
+        private Runnable next() {
+            Runnable[] next = new Runnable[1];
+            lanes.compute(key, (k, existing) -> {
+                next[0] = tasks.poll();
+                if (next[0] == null) {
+                    scheduled = false;
+                    return null;
+                }
+                return existing;
+            });
+            return next[0];
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package discord.chat.mc.util;
+
+import java.util.Arrays;
+
+/**
+ * Log-linear histogram in the style of HdrHistogram: values below 32 are counted exactly and
+ * larger values land in buckets at most ~6% wide, so percentiles stay accurate from single
+ * ticks up to hours of microseconds in under 8 KB. Negative values are recorded as zero.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1;
+
+    private final long[] counts = new long[(64 - SUB_BUCKET_BITS) * SUB_BUCKET_HALF + SUB_BUCKET_COUNT];
+    private long totalCount;
+    private long sum;
+    private long max;
+
+    public synchronized void record(long value) {
+        long clamped = Math.max(0, value);
+        counts[indexOf(clamped)]++;
+        totalCount++;
+        sum += clamped;
+        if (clamped > max) max = clamped;
+    }
+
+    public synchronized long getCount() { return totalCount; }
+    public synchronized long getMax() { return max; }
+    public synchronized double getMean() { return totalCount == 0 ? 0 : (double) sum / totalCount; }
+
+    public synchronized long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(totalCount * Math.min(100, Math.max(0, percentile)) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) return Math.min(max, highestValueAt(i));
+        }
+        return max;
+    }
+
+    public synchronized void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS + 1;
+        return shift * SUB_BUCKET_HALF + (int) (value >>> shift);
+    }
+
+    private static long highestValueAt(int index) {
+        if (index < SUB_BUCKET_COUNT) return index;
+        int shift = index / SUB_BUCKET_HALF - 1;
+        long lowest = (long) (index - shift * SUB_BUCKET_HALF) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,116 @@
+package discord.chat.mc.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Bounded multi-producer queue that hands items to a single consumer in batches. A batch is
+ * flushed once the first queued item has lingered for the linger time, or as soon as a full
+ * batch is waiting. Flushes run on the given executor, which must run them one at a time.
+ */
+public final class LingerBatcher<T> {
+    public enum OverflowPolicy {
+        DROP_OLDEST("drop_oldest"),
+        DROP_NEWEST("drop_newest");
+
+        private final String configName;
+
+        OverflowPolicy(String configName) {
+            this.configName = configName;
+        }
+
+        public String configName() { return configName; }
+
+        public static OverflowPolicy fromConfigName(String configName) {
+            for (OverflowPolicy policy : values()) {
+                if (policy.configName.equals(configName)) return policy;
+            }
+            return DROP_OLDEST;
+        }
+    }
+
+    private final int capacity;
+    private final Executor flushExecutor;
+    private final Consumer<List<T>> sink;
+    private final ConcurrentLinkedQueue<T> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean lingerScheduled = new AtomicBoolean(false);
+    private final AtomicBoolean eagerFlushScheduled = new AtomicBoolean(false);
+    private final LatencyHistogram batchSizes = new LatencyHistogram();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile int maxBatch = 1;
+
+    public LingerBatcher(int capacity, Executor flushExecutor, Consumer<List<T>> sink) {
+        this.capacity = capacity;
+        this.flushExecutor = flushExecutor;
+        this.sink = sink;
+    }
+
+    public void offer(T item, long lingerMs, int maxBatch, OverflowPolicy policy) {
+        this.maxBatch = Math.max(1, maxBatch);
+
+        if (size.incrementAndGet() > capacity) {
+            if (policy == OverflowPolicy.DROP_NEWEST || queue.poll() == null) {
+                size.decrementAndGet();
+                dropped.incrementAndGet();
+                return;
+            }
+            size.decrementAndGet();
+            dropped.incrementAndGet();
+        }
+        queue.add(item);
+
+        if (lingerMs <= 0 || size.get() >= this.maxBatch) {
+            if (eagerFlushScheduled.compareAndSet(false, true)) submitFlush(eagerFlushScheduled);
+        } else if (lingerScheduled.compareAndSet(false, true)) {
+            try {
+                ModRuntime.getInstance().schedule(() -> {
+                    lingerScheduled.set(false);
+                    submitFlush(null);
+                }, lingerMs);
+            } catch (RejectedExecutionException e) {
+                lingerScheduled.set(false);
+            }
+        }
+    }
+
+    private void submitFlush(AtomicBoolean scheduledFlag) {
+        try {
+            flushExecutor.execute(() -> {
+                if (scheduledFlag != null) scheduledFlag.set(false);
+                flush();
+            });
+        } catch (RejectedExecutionException e) {
+            if (scheduledFlag != null) scheduledFlag.set(false);
+        }
+    }
+
+    private void flush() {
+        int limit = maxBatch;
+        while (true) {
+            List<T> batch = new ArrayList<>(Math.min(limit, Math.max(1, size.get())));
+            T item;
+            while (batch.size() < limit && (item = queue.poll()) != null) {
+                size.decrementAndGet();
+                batch.add(item);
+            }
+            if (batch.isEmpty()) return;
+
+            batchSizes.record(batch.size());
+            sink.accept(batch);
+            if (batch.size() < limit) return;
+        }
+    }
+
+    public int getQueuedCount() { return size.get(); }
+    public int getCapacity() { return capacity; }
+    public LatencyHistogram getBatchSizes() { return batchSizes; }
+    public long getDroppedCount() { return dropped.get(); }
+}
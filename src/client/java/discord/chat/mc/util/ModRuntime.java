@@ -0,0 +1,102 @@
+package discord.chat.mc.util;
+
+import discord.chat.mc.DiscordChatIntegration;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Owns every background task of the mod: blocking work runs on virtual threads and timed work
+ * is dispatched by a single scheduler thread, which hands each task off to a virtual thread so
+ * a slow task never delays the others. {@link #stop()} tears both down; {@link #start()}
+ * brings up fresh ones.
+ */
+public final class ModRuntime implements Executor {
+    private static final ModRuntime INSTANCE = new ModRuntime();
+    private static final long SHUTDOWN_GRACE_MS = 500;
+
+    private ExecutorService workers;
+    private ScheduledThreadPoolExecutor scheduler;
+
+    private ModRuntime() {
+        start();
+    }
+
+    public static ModRuntime getInstance() {
+        return INSTANCE;
+    }
+
+    public synchronized void start() {
+        if (workers != null) return;
+
+        workers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("Discord-Worker-", 0).factory());
+        scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "Discord-Scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    public void stop() {
+        ExecutorService stoppingWorkers;
+        ScheduledThreadPoolExecutor stoppingScheduler;
+        synchronized (this) {
+            if (workers == null) return;
+            stoppingWorkers = workers;
+            stoppingScheduler = scheduler;
+            workers = null;
+            scheduler = null;
+        }
+
+        stoppingScheduler.shutdownNow();
+        stoppingWorkers.shutdown();
+        try {
+            if (!stoppingWorkers.awaitTermination(SHUTDOWN_GRACE_MS, TimeUnit.MILLISECONDS)) {
+                stoppingWorkers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            stoppingWorkers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public synchronized boolean isRunning() {
+        return workers != null;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        ExecutorService current;
+        synchronized (this) {
+            current = workers;
+        }
+        if (current == null) throw new RejectedExecutionException("Runtime is stopped");
+        current.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                DiscordChatIntegration.LOGGER.error("Error in background task: {}", e.getMessage());
+            }
+        });
+    }
+
+    public ScheduledFuture<?> schedule(Runnable task, long delayMs) {
+        ScheduledThreadPoolExecutor current;
+        synchronized (this) {
+            current = scheduler;
+        }
+        if (current == null) throw new RejectedExecutionException("Runtime is stopped");
+        return current.schedule(() -> {
+            try {
+                execute(task);
+            } catch (RejectedExecutionException ignored) {}
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,68 @@
+package discord.chat.mc.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded single-producer/single-consumer ring buffer with a timestamp per slot. The producer
+ * fills a slot with plain writes and publishes it with one release store of its index, so
+ * {@link #offer} never locks, allocates or waits; it fails when the ring is full. Each side keeps
+ * a cached copy of the other's index and only re-reads the shared one when the ring looks full
+ * or empty. Exactly one thread may offer, and one thread at a time may poll.
+ */
+public final class SpscRing<T> {
+    private final Object[] items;
+    private final long[] stamps;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private long cachedHead;
+    private long cachedTail;
+    private long lastPolledStamp;
+
+    public SpscRing(int capacity) {
+        int size = 2;
+        while (size < capacity) size <<= 1;
+        this.items = new Object[size];
+        this.stamps = new long[size];
+        this.mask = size - 1;
+    }
+
+    public boolean offer(T item, long stamp) {
+        long position = tail.getPlain();
+        if (position - cachedHead >= items.length) {
+            cachedHead = head.getAcquire();
+            if (position - cachedHead >= items.length) return false;
+        }
+
+        int index = (int) position & mask;
+        items[index] = item;
+        stamps[index] = stamp;
+        tail.setRelease(position + 1);
+        return true;
+    }
+
+    /**
+     * Removes and returns the oldest item, or {@code null} when the ring is empty. The item's
+     * stamp is then available from {@link #getLastPolledStamp()}.
+     */
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long position = head.getPlain();
+        if (position >= cachedTail) {
+            cachedTail = tail.getAcquire();
+            if (position >= cachedTail) return null;
+        }
+
+        int index = (int) position & mask;
+        T item = (T) items[index];
+        lastPolledStamp = stamps[index];
+        items[index] = null;
+        head.setRelease(position + 1);
+        return item;
+    }
+
+    public long getLastPolledStamp() { return lastPolledStamp; }
+    public int size() { return (int) Math.max(0, tail.getAcquire() - head.getAcquire()); }
+    public boolean isEmpty() { return size() == 0; }
+    public int getCapacity() { return items.length; }
+}
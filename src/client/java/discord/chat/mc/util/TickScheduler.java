@@ -0,0 +1,85 @@
+package discord.chat.mc.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Min-heap of values due at a game tick, FIFO among values due at the same tick. The earliest
+ * due tick is published through a volatile field so an idle tick costs a single read; only
+ * ticks with due values take the lock. Cancelled entries are dropped lazily when they reach
+ * the head of the heap.
+ */
+public final class TickScheduler<T> {
+    private static final Comparator<Entry<?>> ORDER =
+            Comparator.<Entry<?>>comparingLong(entry -> entry.dueTick).thenComparingLong(entry -> entry.seq);
+
+    private static final class Entry<T> {
+        final long dueTick;
+        final long seq;
+        final String id;
+        final T value;
+        boolean cancelled;
+
+        Entry(long dueTick, long seq, String id, T value) {
+            this.dueTick = dueTick;
+            this.seq = seq;
+            this.id = id;
+            this.value = value;
+        }
+    }
+
+    private final PriorityQueue<Entry<T>> heap = new PriorityQueue<>(ORDER);
+    private final Map<String, Entry<T>> byId = new HashMap<>();
+    private long nextSeq;
+    private int size;
+    private volatile long nextDueTick = Long.MAX_VALUE;
+
+    public synchronized void schedule(long dueTick, String id, T value) {
+        Entry<T> entry = new Entry<>(dueTick, nextSeq++, id, value);
+        heap.add(entry);
+        size++;
+        if (id != null) byId.put(id, entry);
+        nextDueTick = heap.peek().dueTick;
+    }
+
+    public synchronized boolean cancel(String id) {
+        Entry<T> entry = byId.remove(id);
+        if (entry == null) return false;
+        entry.cancelled = true;
+        size--;
+        pruneHead();
+        return true;
+    }
+
+    public boolean hasDue(long currentTick) {
+        return nextDueTick <= currentTick;
+    }
+
+    public List<T> pollDue(long currentTick) {
+        if (!hasDue(currentTick)) return List.of();
+
+        synchronized (this) {
+            List<T> due = new ArrayList<>();
+            while (!heap.isEmpty() && heap.peek().dueTick <= currentTick) {
+                Entry<T> entry = heap.poll();
+                if (entry.cancelled) continue;
+                size--;
+                if (entry.id != null) byId.remove(entry.id, entry);
+                due.add(entry.value);
+            }
+            pruneHead();
+            return due;
+        }
+    }
+
+    public synchronized int size() { return size; }
+
+    private void pruneHead() {
+        while (!heap.isEmpty() && heap.peek().cancelled) heap.poll();
+        nextDueTick = heap.isEmpty() ? Long.MAX_VALUE : heap.peek().dueTick;
+    }
+}
@@ -0,0 +1,55 @@
+package discord.chat.mc.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, implemented as GCRA: the only state is the theoretical arrival time of
+ * the next request, advanced by one emission interval per token with a single CAS. Up to
+ * {@code burst} tokens can be taken back to back; after that they refill at {@code perMinute}.
+ * Times are {@link System#nanoTime()} values.
+ */
+public final class TokenBucket {
+    private record Limits(int perMinute, int burst, long intervalNanos, long toleranceNanos) {
+        static Limits of(int perMinute, int burst) {
+            long interval = 60_000_000_000L / Math.max(1, perMinute);
+            return new Limits(perMinute, Math.max(1, burst), interval, (Math.max(1, burst) - 1) * interval);
+        }
+    }
+
+    private volatile Limits limits;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(int perMinute, int burst) {
+        this.limits = Limits.of(perMinute, burst);
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    public void setLimits(int perMinute, int burst) {
+        Limits current = limits;
+        if (current.perMinute() != perMinute || current.burst() != burst) limits = Limits.of(perMinute, burst);
+    }
+
+    /**
+     * Takes a token and returns 0, or returns how many nanoseconds until one is available
+     * without taking anything.
+     */
+    public long tryAcquire(long nowNanos) {
+        Limits current = limits;
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long base = arrival - nowNanos > 0 ? arrival : nowNanos;
+            long ahead = base - nowNanos;
+            if (ahead > current.toleranceNanos()) return ahead - current.toleranceNanos();
+            if (theoreticalArrival.compareAndSet(arrival, base + current.intervalNanos())) return 0;
+        }
+    }
+
+    public int getAvailableTokens(long nowNanos) {
+        Limits current = limits;
+        long ahead = Math.max(0, theoreticalArrival.get() - nowNanos);
+        if (ahead > current.toleranceNanos()) return 0;
+        return (int) Math.min(current.burst(), (current.toleranceNanos() - ahead) / current.intervalNanos() + 1);
+    }
+
+    public int getBurst() { return limits.burst(); }
+}
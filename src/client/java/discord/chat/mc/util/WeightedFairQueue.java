@@ -0,0 +1,97 @@
+package discord.chat.mc.util;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded multi-flow queue served by deficit round robin: each backlogged flow gets up to
+ * {@code weight} items per round, so a flooding flow cannot delay the others by more than one
+ * round. When the queue is full the newest item of the flow with the largest backlog per unit of
+ * weight is pushed out, which keeps room for light flows while heavy ones fill what is left.
+ */
+public final class WeightedFairQueue<T> {
+    private static final class Flow<T> {
+        final Object key;
+        final ArrayDeque<T> items = new ArrayDeque<>();
+        int weight;
+        int credit;
+
+        Flow(Object key, int weight) {
+            this.key = key;
+            this.weight = weight;
+        }
+    }
+
+    private final Map<Object, Flow<T>> flows = new HashMap<>();
+    private final ArrayDeque<Flow<T>> active = new ArrayDeque<>();
+    private int size;
+
+    /**
+     * Adds {@code item} to the flow for {@code key} and returns the item that had to be dropped to
+     * stay within {@code capacity}, which may be {@code item} itself, or {@code null}.
+     */
+    public synchronized T offer(Object key, int weight, T item, int capacity) {
+        if (capacity <= 0) return item;
+
+        Flow<T> flow = flows.get(key);
+        if (flow == null) {
+            flow = new Flow<>(key, Math.max(1, weight));
+            flows.put(key, flow);
+            active.addLast(flow);
+        } else {
+            flow.weight = Math.max(1, weight);
+        }
+        flow.items.addLast(item);
+        size++;
+
+        if (size <= capacity) return null;
+
+        Flow<T> heaviest = flow;
+        for (Flow<T> candidate : active) {
+            if ((long) candidate.items.size() * heaviest.weight > (long) heaviest.items.size() * candidate.weight) {
+                heaviest = candidate;
+            }
+        }
+        T dropped = heaviest.items.pollLast();
+        size--;
+        if (heaviest.items.isEmpty()) retire(heaviest);
+        return dropped;
+    }
+
+    public synchronized T poll() {
+        Flow<T> flow = active.peekFirst();
+        if (flow == null) return null;
+
+        if (flow.credit == 0) flow.credit = flow.weight;
+        T item = flow.items.pollFirst();
+        size--;
+        flow.credit--;
+
+        if (flow.items.isEmpty()) {
+            retire(flow);
+        } else if (flow.credit == 0) {
+            active.addLast(active.pollFirst());
+        }
+        return item;
+    }
+
+    public synchronized int size() { return size; }
+    public synchronized int getFlowCount() { return active.size(); }
+
+    /**
+     * Returns the largest value of {@code metric} over the items at the head of each flow, or 0
+     * when the queue is empty.
+     */
+    public synchronized long maxOverHeads(ToLongFunction<T> metric) {
+        long max = 0;
+        for (Flow<T> flow : active) max = Math.max(max, metric.applyAsLong(flow.items.peekFirst()));
+        return max;
+    }
+
+    private void retire(Flow<T> flow) {
+        active.remove(flow);
+        flows.remove(flow.key);
+    }
+}
@@ -0,0 +1,218 @@
+package discord.chat.mc.websocket;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Compact binary encoding of the bridge protocol, selected by the {@value #SUBPROTOCOL}
+ * WebSocket subprotocol. Every frame starts with a one-byte opcode; integers are unsigned
+ * LEB128 varints (zigzag-encoded where they may be negative) and strings are a varint
+ * byte length followed by UTF-8.
+ */
+public final class BinaryBridgeCodec {
+    public static final String SUBPROTOCOL = "dci.binary.v1";
+
+    public static final byte OP_DISCORD_MESSAGE = 0x01;
+    public static final byte OP_SET_SYNC_GROUP = 0x02;
+    public static final byte OP_GET_TICK = 0x03;
+    public static final byte OP_PING = 0x04;
+    public static final byte OP_REQUEST_PLAYER_INFO = 0x05;
+    public static final byte OP_AUTOMATIONS_LIST = 0x06;
+    public static final byte OP_AUTOMATION_RESULT = 0x07;
+    public static final byte OP_SUBSCRIBE_TICKS = 0x08;
+    public static final byte OP_HELLO = 0x09;
+    public static final byte OP_BATCH_IN = 0x0A;
+    public static final byte OP_RESUME = 0x0B;
+    public static final byte OP_PONG_IN = 0x0C;
+    public static final byte OP_CANCEL_MESSAGE = 0x0D;
+
+    public static final byte OP_CONNECTION_STATUS = (byte) 0x81;
+    public static final byte OP_TICK_UPDATE = (byte) 0x82;
+    public static final byte OP_PONG = (byte) 0x83;
+    public static final byte OP_PLAYER_INFO = (byte) 0x84;
+    public static final byte OP_MINECRAFT_MESSAGE = (byte) 0x85;
+    public static final byte OP_GET_AUTOMATIONS = (byte) 0x86;
+    public static final byte OP_RUN_AUTOMATION = (byte) 0x87;
+    public static final byte OP_STOP_AUTOMATION = (byte) 0x88;
+    public static final byte OP_BATCH_OUT = (byte) 0x89;
+    public static final byte OP_RESYNC = (byte) 0x8A;
+    public static final byte OP_PING_OUT = (byte) 0x8B;
+
+    public static final int FLAG_TICK_SYNC = 1;
+    public static final int FLAG_HAS_MESSAGE_ID = 1 << 1;
+    public static final int FLAG_HAS_TARGET_TICK = 1 << 2;
+    public static final int FLAG_HAS_PLAYER_NAME = 1;
+    public static final int FLAG_HAS_CAPABILITIES = 1 << 1;
+    public static final int FLAG_HAS_STREAM = 1 << 2;
+    public static final int FLAG_IN_WORLD = 1;
+    public static final int FLAG_IN_MULTIPLAYER = 1 << 1;
+    public static final int FLAG_HAS_UUID = 1 << 2;
+    public static final int FLAG_HAS_SERVER_ADDRESS = 1 << 3;
+
+    private BinaryBridgeCodec() {}
+
+    public static final class Writer {
+        private byte[] buffer;
+        private int size;
+
+        public Writer(int initialCapacity) {
+            this.buffer = new byte[Math.max(16, initialCapacity)];
+        }
+
+        public Writer writeByte(int value) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) value;
+            return this;
+        }
+
+        public Writer writeBoolean(boolean value) {
+            return writeByte(value ? 1 : 0);
+        }
+
+        public Writer writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+            return this;
+        }
+
+        public Writer writeSignedVarLong(long value) {
+            return writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        public Writer writeString(String value) {
+            String safeValue = value != null ? value : "";
+            int length = safeValue.length();
+            int maxBytes = length * 3;
+            ensureCapacity(5 + maxBytes);
+
+            int lengthStart = size;
+            int prefixSize = varIntSize(maxBytes);
+            int cursor = lengthStart + prefixSize;
+            for (int i = 0; i < length; i++) {
+                char c = safeValue.charAt(i);
+                if (c < 0x80) {
+                    buffer[cursor++] = (byte) c;
+                } else if (c < 0x800) {
+                    buffer[cursor++] = (byte) (0xC0 | (c >> 6));
+                    buffer[cursor++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(safeValue.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, safeValue.charAt(++i));
+                    buffer[cursor++] = (byte) (0xF0 | (codePoint >> 18));
+                    buffer[cursor++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    buffer[cursor++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    buffer[cursor++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    buffer[cursor++] = (byte) '?';
+                } else {
+                    buffer[cursor++] = (byte) (0xE0 | (c >> 12));
+                    buffer[cursor++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buffer[cursor++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+
+            int byteLength = cursor - lengthStart - prefixSize;
+            int actualPrefixSize = varIntSize(byteLength);
+            if (actualPrefixSize != prefixSize) {
+                System.arraycopy(buffer, lengthStart + prefixSize, buffer, lengthStart + actualPrefixSize, byteLength);
+            }
+            size = lengthStart;
+            writeVarLong(byteLength);
+            size += byteLength;
+            return this;
+        }
+
+        public Writer writeBytes(ByteBuffer bytes) {
+            int length = bytes.remaining();
+            ensureCapacity(length);
+            bytes.duplicate().get(buffer, size, length);
+            size += length;
+            return this;
+        }
+
+        public ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(Arrays.copyOf(buffer, size));
+        }
+
+        private void ensureCapacity(int additional) {
+            if (size + additional <= buffer.length) return;
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + additional));
+        }
+
+        private static int varIntSize(int value) {
+            int bytes = 1;
+            while ((value & ~0x7F) != 0) {
+                value >>>= 7;
+                bytes++;
+            }
+            return bytes;
+        }
+    }
+
+    public static final class Reader {
+        private final ByteBuffer buffer;
+
+        public Reader(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        public boolean hasRemaining() {
+            return buffer.hasRemaining();
+        }
+
+        public int readByte() {
+            if (!buffer.hasRemaining()) throw new IllegalArgumentException("Truncated binary frame");
+            return buffer.get() & 0xFF;
+        }
+
+        public boolean readBoolean() {
+            return readByte() != 0;
+        }
+
+        public long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+            throw new IllegalArgumentException("Varint too long");
+        }
+
+        public long readSignedVarLong() {
+            long raw = readVarLong();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        public ByteBuffer readSlice() {
+            long length = readVarLong();
+            if (length < 0 || length > buffer.remaining()) throw new IllegalArgumentException("Truncated binary frame");
+
+            ByteBuffer slice = buffer.slice();
+            slice.limit((int) length);
+            buffer.position(buffer.position() + (int) length);
+            return slice;
+        }
+
+        public String readString() {
+            long length = readVarLong();
+            if (length < 0 || length > buffer.remaining()) throw new IllegalArgumentException("Truncated binary string");
+
+            int byteLength = (int) length;
+            String value;
+            if (buffer.hasArray()) {
+                value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), byteLength, StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + byteLength);
+            } else {
+                byte[] bytes = new byte[byteLength];
+                buffer.get(bytes);
+                value = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return value;
+        }
+    }
+}
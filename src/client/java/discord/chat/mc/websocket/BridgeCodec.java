@@ -0,0 +1,813 @@
+package discord.chat.mc.websocket;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+final class BridgeCodec {
+    static final Object NO_FIELDS = new Object();
+    static final String CAPABILITY_BATCH = "batch";
+    static final String CAPABILITY_RESUME = "resume";
+    static final List<String> SERVER_CAPABILITIES = List.of(CAPABILITY_BATCH, CAPABILITY_RESUME);
+    private static final String BATCH_TYPE = "batch";
+    private static final byte[] JSON_BATCH_PREFIX = "{\"type\":\"batch\",\"messages\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] JSON_BATCH_SUFFIX = "]}".getBytes(StandardCharsets.UTF_8);
+    private static final ThreadLocal<JsonEncoder> JSON_ENCODER = ThreadLocal.withInitial(JsonEncoder::new);
+
+    interface JsonDecoder<T> {
+        T decode(JsonReader reader) throws IOException;
+    }
+
+    interface BinaryDecoder<T> {
+        T decode(BinaryBridgeCodec.Reader reader);
+    }
+
+    interface JsonBody {
+        void write(JsonWriter writer) throws IOException;
+    }
+
+    record SyncGroupUpdate(String syncGroup) {}
+    record AutomationsList(List<String> names, long requestId) {}
+    record AutomationResult(boolean success, String message, long requestId) {}
+    record TickSubscriptionRequest(TickSubscription.Mode mode, int interval) {}
+    record Hello(Set<String> capabilities) {}
+    record Resume(long streamId, long lastSeq) {}
+    record Ping(long t0, long receivedAt) {}
+    record CancelMessage(String messageId) {}
+    record Pong(long t0, long t1, long t2, long receivedAt) {}
+
+    private record Route<T>(JsonDecoder<T> jsonDecoder, BinaryDecoder<T> binaryDecoder,
+                            BiConsumer<BridgeConnection, List<T>> handler) {
+        @SuppressWarnings("unchecked")
+        void handle(BridgeConnection connection, List<?> values) {
+            handler.accept(connection, (List<T>) values);
+        }
+    }
+
+    private record Decoded(Route<?> route, Object value) {}
+
+    private final Map<String, Route<?>> jsonRoutes = new HashMap<>();
+    private final Route<?>[] binaryRoutes = new Route<?>[256];
+
+    <T> BridgeCodec route(String type, byte opcode, JsonDecoder<T> jsonDecoder, BinaryDecoder<T> binaryDecoder,
+                          BiConsumer<BridgeConnection, T> handler) {
+        return routeBatch(type, opcode, jsonDecoder, binaryDecoder, (connection, values) -> {
+            for (T value : values) handler.accept(connection, value);
+        });
+    }
+
+    <T> BridgeCodec routeBatch(String type, byte opcode, JsonDecoder<T> jsonDecoder, BinaryDecoder<T> binaryDecoder,
+                               BiConsumer<BridgeConnection, List<T>> handler) {
+        Route<T> route = new Route<>(jsonDecoder, binaryDecoder, handler);
+        jsonRoutes.put(type, route);
+        binaryRoutes[opcode & 0xFF] = route;
+        return this;
+    }
+
+    boolean dispatchJson(BridgeConnection connection, String message) throws IOException {
+        JsonReader reader = newReader(message);
+        reader.beginObject();
+        if (reader.hasNext() && "type".equals(reader.nextName())) {
+            return dispatchJson(connection, readString(reader), reader);
+        }
+
+        reader = newReader(message);
+        reader.beginObject();
+        return dispatchJson(connection, findType(message), reader);
+    }
+
+    private boolean dispatchJson(BridgeConnection connection, String type, JsonReader reader) throws IOException {
+        if (BATCH_TYPE.equals(type)) {
+            dispatchBatch(connection, readJsonBatch(reader));
+            return true;
+        }
+
+        Route<?> route = type != null ? jsonRoutes.get(type) : null;
+        if (route == null) return false;
+        route.handle(connection, List.of(route.jsonDecoder().decode(reader)));
+        return true;
+    }
+
+    boolean dispatchBinary(BridgeConnection connection, ByteBuffer message) {
+        BinaryBridgeCodec.Reader reader = new BinaryBridgeCodec.Reader(message);
+        int opcode = reader.readByte();
+        if (opcode == (BinaryBridgeCodec.OP_BATCH_IN & 0xFF)) {
+            dispatchBatch(connection, readBinaryBatch(reader));
+            return true;
+        }
+
+        Route<?> route = binaryRoutes[opcode];
+        if (route == null) return false;
+        route.handle(connection, List.of(route.binaryDecoder().decode(reader)));
+        return true;
+    }
+
+    private static void dispatchBatch(BridgeConnection connection, List<Decoded> decoded) {
+        int start = 0;
+        while (start < decoded.size()) {
+            Route<?> route = decoded.get(start).route();
+            int end = start + 1;
+            while (end < decoded.size() && decoded.get(end).route() == route) end++;
+
+            List<Object> values = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) values.add(decoded.get(i).value());
+            route.handle(connection, values);
+            start = end;
+        }
+    }
+
+    private List<Decoded> readJsonBatch(JsonReader reader) throws IOException {
+        List<Decoded> decoded = new ArrayList<>();
+        while (reader.hasNext()) {
+            if ("messages".equals(reader.nextName()) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                while (reader.hasNext()) readJsonBatchEntry(reader, decoded);
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return decoded;
+    }
+
+    private void readJsonBatchEntry(JsonReader reader, List<Decoded> decoded) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return;
+        }
+
+        reader.beginObject();
+        if (!reader.hasNext()) {
+            reader.endObject();
+            return;
+        }
+
+        String firstName = reader.nextName();
+        if (!"type".equals(firstName)) {
+            JsonObject entry = new JsonObject();
+            entry.add(firstName, JsonParser.parseReader(reader));
+            while (reader.hasNext()) entry.add(reader.nextName(), JsonParser.parseReader(reader));
+            reader.endObject();
+
+            String type = entry.has("type") && entry.get("type").isJsonPrimitive() ? entry.get("type").getAsString() : null;
+            JsonReader entryReader = newReader(entry.toString());
+            entryReader.beginObject();
+            decodeJsonBatchEntry(type, entryReader, decoded);
+            return;
+        }
+
+        decodeJsonBatchEntry(readString(reader), reader, decoded);
+    }
+
+    private void decodeJsonBatchEntry(String type, JsonReader reader, List<Decoded> decoded) throws IOException {
+        Route<?> route = type != null && !BATCH_TYPE.equals(type) ? jsonRoutes.get(type) : null;
+        if (route == null) {
+            skipFields(reader);
+            return;
+        }
+        decoded.add(new Decoded(route, route.jsonDecoder().decode(reader)));
+    }
+
+    private List<Decoded> readBinaryBatch(BinaryBridgeCodec.Reader reader) {
+        List<Decoded> decoded = new ArrayList<>();
+        long count = reader.readVarLong();
+        for (long i = 0; i < count; i++) {
+            BinaryBridgeCodec.Reader entry = new BinaryBridgeCodec.Reader(reader.readSlice());
+            int opcode = entry.readByte();
+            Route<?> route = opcode != (BinaryBridgeCodec.OP_BATCH_IN & 0xFF) ? binaryRoutes[opcode] : null;
+            if (route != null) decoded.add(new Decoded(route, route.binaryDecoder().decode(entry)));
+        }
+        return decoded;
+    }
+
+    private static JsonReader newReader(String message) {
+        JsonReader reader = new JsonReader(new StringReader(message));
+        reader.setStrictness(Strictness.LENIENT);
+        return reader;
+    }
+
+    private static String findType(String message) throws IOException {
+        JsonReader reader = newReader(message);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("type".equals(reader.nextName())) return readString(reader);
+            reader.skipValue();
+        }
+        return null;
+    }
+
+    static DiscordWebSocketServer.ChatMessage readDiscordMessage(JsonReader reader) throws IOException {
+        String author = "Unknown";
+        String content = "";
+        String messageId = null;
+        boolean tickSync = false;
+        String syncGroup = "none";
+        long targetTick = -1;
+
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "author" -> author = readString(reader);
+                case "content" -> content = readString(reader);
+                case "messageId" -> messageId = readString(reader);
+                case "tickSync" -> tickSync = readBoolean(reader);
+                case "syncGroup" -> syncGroup = readString(reader);
+                case "targetTick" -> targetTick = readLong(reader, -1);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new DiscordWebSocketServer.ChatMessage(author, content != null ? content : "", messageId, tickSync, syncGroup, targetTick);
+    }
+
+    static DiscordWebSocketServer.ChatMessage readDiscordMessage(BinaryBridgeCodec.Reader reader) {
+        int flags = reader.readByte();
+        String author = reader.readString();
+        String content = reader.readString();
+        String messageId = (flags & BinaryBridgeCodec.FLAG_HAS_MESSAGE_ID) != 0 ? reader.readString() : null;
+        String syncGroup = reader.readString();
+        long targetTick = (flags & BinaryBridgeCodec.FLAG_HAS_TARGET_TICK) != 0 ? reader.readSignedVarLong() : -1;
+        boolean tickSync = (flags & BinaryBridgeCodec.FLAG_TICK_SYNC) != 0;
+        return new DiscordWebSocketServer.ChatMessage(author, content, messageId, tickSync, syncGroup, targetTick);
+    }
+
+    static SyncGroupUpdate readSyncGroup(JsonReader reader) throws IOException {
+        String syncGroup = "none";
+        while (reader.hasNext()) {
+            if ("syncGroup".equals(reader.nextName())) {
+                syncGroup = readString(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new SyncGroupUpdate(syncGroup);
+    }
+
+    static SyncGroupUpdate readSyncGroup(BinaryBridgeCodec.Reader reader) {
+        return new SyncGroupUpdate(reader.readString());
+    }
+
+    static AutomationsList readAutomationsList(JsonReader reader) throws IOException {
+        List<String> names = null;
+        long requestId = 0;
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("automations".equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                names = new ArrayList<>();
+                reader.beginArray();
+                while (reader.hasNext()) names.add(readString(reader));
+                reader.endArray();
+            } else if ("requestId".equals(name)) {
+                requestId = readLong(reader, 0);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new AutomationsList(names, requestId);
+    }
+
+    static AutomationsList readAutomationsList(BinaryBridgeCodec.Reader reader) {
+        long count = reader.readVarLong();
+        List<String> names = new ArrayList<>();
+        for (long i = 0; i < count; i++) names.add(reader.readString());
+        return new AutomationsList(names, reader.hasRemaining() ? reader.readVarLong() : 0);
+    }
+
+    static AutomationResult readAutomationResult(JsonReader reader) throws IOException {
+        boolean success = false;
+        String message = "";
+        long requestId = 0;
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "success" -> success = readBoolean(reader);
+                case "message" -> message = readString(reader);
+                case "requestId" -> requestId = readLong(reader, 0);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new AutomationResult(success, message != null ? message : "", requestId);
+    }
+
+    static AutomationResult readAutomationResult(BinaryBridgeCodec.Reader reader) {
+        boolean success = reader.readBoolean();
+        String message = reader.readString();
+        return new AutomationResult(success, message, reader.hasRemaining() ? reader.readVarLong() : 0);
+    }
+
+    static TickSubscriptionRequest readTickSubscription(JsonReader reader) throws IOException {
+        TickSubscription.Mode mode = null;
+        long interval = 1;
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "mode" -> mode = TickSubscription.Mode.fromWireName(readString(reader));
+                case "interval" -> interval = readLong(reader, 1);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new TickSubscriptionRequest(mode, (int) Math.min(interval, TickSubscription.MAX_INTERVAL));
+    }
+
+    static TickSubscriptionRequest readTickSubscription(BinaryBridgeCodec.Reader reader) {
+        TickSubscription.Mode mode = TickSubscription.Mode.fromOrdinal(reader.readByte());
+        long interval = reader.readVarLong();
+        return new TickSubscriptionRequest(mode, (int) Math.min(interval, TickSubscription.MAX_INTERVAL));
+    }
+
+    static Hello readHello(JsonReader reader) throws IOException {
+        Set<String> capabilities = new HashSet<>();
+        while (reader.hasNext()) {
+            if ("capabilities".equals(reader.nextName()) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    String capability = readString(reader);
+                    if (capability != null) capabilities.add(capability);
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new Hello(capabilities);
+    }
+
+    static Hello readHello(BinaryBridgeCodec.Reader reader) {
+        Set<String> capabilities = new HashSet<>();
+        long count = reader.readVarLong();
+        for (long i = 0; i < count; i++) capabilities.add(reader.readString());
+        return new Hello(capabilities);
+    }
+
+    static Resume readResume(JsonReader reader) throws IOException {
+        long streamId = 0;
+        long lastSeq = -1;
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "streamId" -> streamId = readLong(reader, 0);
+                case "lastSeq" -> lastSeq = readLong(reader, -1);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new Resume(streamId, lastSeq);
+    }
+
+    static Resume readResume(BinaryBridgeCodec.Reader reader) {
+        long streamId = reader.readVarLong();
+        return new Resume(streamId, reader.readVarLong());
+    }
+
+    static CancelMessage readCancelMessage(JsonReader reader) throws IOException {
+        String messageId = null;
+        while (reader.hasNext()) {
+            if ("messageId".equals(reader.nextName())) {
+                messageId = readString(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new CancelMessage(messageId);
+    }
+
+    static CancelMessage readCancelMessage(BinaryBridgeCodec.Reader reader) {
+        return new CancelMessage(reader.readString());
+    }
+
+    static Ping readPing(JsonReader reader) throws IOException {
+        long receivedAt = ClockEstimator.nowMicros();
+        long t0 = 0;
+        while (reader.hasNext()) {
+            if ("t0".equals(reader.nextName())) {
+                t0 = readLong(reader, 0);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new Ping(t0, receivedAt);
+    }
+
+    static Ping readPing(BinaryBridgeCodec.Reader reader) {
+        long receivedAt = ClockEstimator.nowMicros();
+        return new Ping(reader.hasRemaining() ? reader.readVarLong() : 0, receivedAt);
+    }
+
+    static Pong readPong(JsonReader reader) throws IOException {
+        long receivedAt = ClockEstimator.nowMicros();
+        long t0 = 0;
+        long t1 = 0;
+        long t2 = 0;
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "t0" -> t0 = readLong(reader, 0);
+                case "t1" -> t1 = readLong(reader, 0);
+                case "t2" -> t2 = readLong(reader, 0);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new Pong(t0, t1, t2, receivedAt);
+    }
+
+    static Pong readPong(BinaryBridgeCodec.Reader reader) {
+        long receivedAt = ClockEstimator.nowMicros();
+        long t0 = reader.readVarLong();
+        long t1 = reader.readVarLong();
+        return new Pong(t0, t1, reader.readVarLong(), receivedAt);
+    }
+
+    static Object skipFields(JsonReader reader) throws IOException {
+        while (reader.hasNext()) {
+            reader.nextName();
+            reader.skipValue();
+        }
+        reader.endObject();
+        return NO_FIELDS;
+    }
+
+    static Object skipFields(BinaryBridgeCodec.Reader reader) {
+        return NO_FIELDS;
+    }
+
+    private static String readString(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        if (token == JsonToken.BOOLEAN) return String.valueOf(reader.nextBoolean());
+        return reader.nextString();
+    }
+
+    private static boolean readBoolean(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.BOOLEAN) return reader.nextBoolean();
+        if (token == JsonToken.NULL) {
+            reader.nextNull();
+            return false;
+        }
+        return Boolean.parseBoolean(reader.nextString());
+    }
+
+    private static long readLong(JsonReader reader, long fallback) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.NUMBER || token == JsonToken.STRING) return reader.nextLong();
+        reader.skipValue();
+        return fallback;
+    }
+
+    static BridgeFrame tickUpdate(long tick) {
+        return new BridgeFrame(
+                () -> encodeJson(writer -> writer.beginObject()
+                        .name("type").value("tick_update")
+                        .name("tick").value(tick)
+                        .endObject()),
+                () -> new BinaryBridgeCodec.Writer(12)
+                        .writeByte(BinaryBridgeCodec.OP_TICK_UPDATE)
+                        .writeSignedVarLong(tick)
+                        .toByteBuffer()
+        );
+    }
+
+    static BridgeFrame tickUpdate(long tick, long rttMicros, long offsetMicros) {
+        return new BridgeFrame(
+                () -> encodeJson(writer -> writer.beginObject()
+                        .name("type").value("tick_update")
+                        .name("tick").value(tick)
+                        .name("rttUs").value(rttMicros)
+                        .name("offsetUs").value(offsetMicros)
+                        .endObject()),
+                () -> new BinaryBridgeCodec.Writer(32)
+                        .writeByte(BinaryBridgeCodec.OP_TICK_UPDATE)
+                        .writeSignedVarLong(tick)
+                        .writeVarLong(rttMicros)
+                        .writeSignedVarLong(offsetMicros)
+                        .toByteBuffer()
+        );
+    }
+
+    static BridgeFrame ping(long t0) {
+        return new BridgeFrame(
+                () -> encodeJson(writer -> writer.beginObject()
+                        .name("type").value("ping")
+                        .name("t0").value(t0)
+                        .endObject()),
+                () -> new BinaryBridgeCodec.Writer(12)
+                        .writeByte(BinaryBridgeCodec.OP_PING_OUT)
+                        .writeVarLong(t0)
+                        .toByteBuffer()
+        );
+    }
+
+    static BridgeFrame pong(Ping ping, long serverTick) {
+        long t2 = ClockEstimator.nowMicros();
+        return new BridgeFrame(
+                () -> encodeJson(writer -> {
+                    writer.beginObject().name("type").value("pong");
+                    if (ping.t0() > 0) writer.name("t0").value(ping.t0());
+                    writer.name("t1").value(ping.receivedAt())
+                            .name("t2").value(t2)
+                            .name("tick").value(serverTick)
+                            .endObject();
+                }),
+                () -> new BinaryBridgeCodec.Writer(40)
+                        .writeByte(BinaryBridgeCodec.OP_PONG)
+                        .writeVarLong(ping.t0())
+                        .writeVarLong(ping.receivedAt())
+                        .writeVarLong(t2)
+                        .writeSignedVarLong(serverTick)
+                        .toByteBuffer()
+        );
+    }
+
+    static BridgeFrame connectionStatus(String message, String playerName) {
+        return connectionStatus(message, playerName, 0, 0);
+    }
+
+    static BridgeFrame connectionStatus(String message, String playerName, long streamId, long seq) {
+        boolean hasStream = streamId > 0;
+        return new BridgeFrame(
+                () -> encodeJson(writer -> {
+                    writer.beginObject()
+                            .name("type").value("connection_status")
+                            .name("status").value("connected")
+                            .name("message").value(message);
+                    if (playerName != null) writer.name("playerName").value(playerName);
+                    writer.name("capabilities").beginArray();
+                    for (String capability : SERVER_CAPABILITIES) writer.value(capability);
+                    writer.endArray();
+                    if (hasStream) writer.name("streamId").value(streamId).name("seq").value(seq);
+                    writer.endObject();
+                }),
+                () -> {
+                    int flags = (playerName != null ? BinaryBridgeCodec.FLAG_HAS_PLAYER_NAME : 0)
+                            | BinaryBridgeCodec.FLAG_HAS_CAPABILITIES
+                            | (hasStream ? BinaryBridgeCodec.FLAG_HAS_STREAM : 0);
+                    BinaryBridgeCodec.Writer writer = new BinaryBridgeCodec.Writer(64)
+                            .writeByte(BinaryBridgeCodec.OP_CONNECTION_STATUS)
+                            .writeByte(flags)
+                            .writeString("connected")
+                            .writeString(message);
+                    if (playerName != null) writer.writeString(playerName);
+                    writer.writeVarLong(SERVER_CAPABILITIES.size());
+                    for (String capability : SERVER_CAPABILITIES) writer.writeString(capability);
+                    if (hasStream) writer.writeVarLong(streamId).writeVarLong(seq);
+                    return writer.toByteBuffer();
+                }
+        );
+    }
+
+    static BridgeFrame playerInfo(PlayerState state, long serverTick) {
+        String name = state.name() != null ? state.name() : "Unknown";
+        return new BridgeFrame(
+                () -> encodeJson(writer -> {
+                    writer.beginObject()
+                            .name("type").value("player_info")
+                            .name("name").value(name)
+                            .name("inWorld").value(state.inWorld())
+                            .name("inMultiplayer").value(state.inMultiplayer());
+                    if (state.uuid() != null) writer.name("uuid").value(state.uuid());
+                    if (state.serverAddress() != null) writer.name("serverAddress").value(state.serverAddress());
+                    if (state.inWorld()) writer.name("serverTick").value(serverTick);
+                    writer.endObject();
+                }),
+                () -> {
+                    int flags = (state.inWorld() ? BinaryBridgeCodec.FLAG_IN_WORLD : 0)
+                            | (state.inMultiplayer() ? BinaryBridgeCodec.FLAG_IN_MULTIPLAYER : 0)
+                            | (state.uuid() != null ? BinaryBridgeCodec.FLAG_HAS_UUID : 0)
+                            | (state.serverAddress() != null ? BinaryBridgeCodec.FLAG_HAS_SERVER_ADDRESS : 0);
+                    BinaryBridgeCodec.Writer writer = new BinaryBridgeCodec.Writer(96 + name.length())
+                            .writeByte(BinaryBridgeCodec.OP_PLAYER_INFO)
+                            .writeByte(flags)
+                            .writeString(name);
+                    if (state.inWorld()) writer.writeSignedVarLong(serverTick);
+                    if (state.uuid() != null) writer.writeString(state.uuid());
+                    if (state.serverAddress() != null) writer.writeString(state.serverAddress());
+                    return writer.toByteBuffer();
+                }
+        );
+    }
+
+    static BridgeFrame minecraftMessage(String author, String content, long seq) {
+        return new BridgeFrame(
+                () -> encodeJson(writer -> writer.beginObject()
+                        .name("type").value("minecraft_message")
+                        .name("author").value(author)
+                        .name("content").value(content)
+                        .name("seq").value(seq)
+                        .endObject()),
+                () -> new BinaryBridgeCodec.Writer(24 + author.length() + content.length())
+                        .writeByte(BinaryBridgeCodec.OP_MINECRAFT_MESSAGE)
+                        .writeString(author)
+                        .writeString(content)
+                        .writeVarLong(seq)
+                        .toByteBuffer(),
+                seq
+        );
+    }
+
+    static BridgeFrame resync(long streamId, long seq) {
+        return new BridgeFrame(
+                () -> encodeJson(writer -> writer.beginObject()
+                        .name("type").value("resync")
+                        .name("streamId").value(streamId)
+                        .name("seq").value(seq)
+                        .endObject()),
+                () -> new BinaryBridgeCodec.Writer(24)
+                        .writeByte(BinaryBridgeCodec.OP_RESYNC)
+                        .writeVarLong(streamId)
+                        .writeVarLong(seq)
+                        .toByteBuffer()
+        );
+    }
+
+    static BridgeFrame runAutomation(String automationName, long requestId) {
+        return new BridgeFrame(
+                () -> encodeJson(writer -> writer.beginObject()
+                        .name("type").value("run_automation")
+                        .name("name").value(automationName)
+                        .name("requestId").value(requestId)
+                        .endObject()),
+                () -> new BinaryBridgeCodec.Writer(16 + automationName.length())
+                        .writeByte(BinaryBridgeCodec.OP_RUN_AUTOMATION)
+                        .writeString(automationName)
+                        .writeVarLong(requestId)
+                        .toByteBuffer()
+        );
+    }
+
+    static BridgeFrame request(String type, byte opcode, long requestId) {
+        return new BridgeFrame(
+                () -> encodeJson(writer -> writer.beginObject()
+                        .name("type").value(type)
+                        .name("requestId").value(requestId)
+                        .endObject()),
+                () -> new BinaryBridgeCodec.Writer(11)
+                        .writeByte(opcode)
+                        .writeVarLong(requestId)
+                        .toByteBuffer()
+        );
+    }
+
+    static BridgeFrame batch(List<BridgeFrame> frames) {
+        return new BridgeFrame(
+                () -> {
+                    List<ByteBuffer> payloads = new ArrayList<>(frames.size());
+                    int length = JSON_BATCH_PREFIX.length + JSON_BATCH_SUFFIX.length + Math.max(0, frames.size() - 1);
+                    for (BridgeFrame frame : frames) {
+                        ByteBuffer payload = frame.payload(BridgeConnection.WireFormat.JSON).duplicate();
+                        payloads.add(payload);
+                        length += payload.remaining();
+                    }
+
+                    ByteBuffer batch = ByteBuffer.allocate(length).put(JSON_BATCH_PREFIX);
+                    for (int i = 0; i < payloads.size(); i++) {
+                        if (i > 0) batch.put((byte) ',');
+                        batch.put(payloads.get(i));
+                    }
+                    return batch.put(JSON_BATCH_SUFFIX).flip();
+                },
+                () -> {
+                    BinaryBridgeCodec.Writer writer = new BinaryBridgeCodec.Writer(16 + frames.size() * 64)
+                            .writeByte(BinaryBridgeCodec.OP_BATCH_OUT)
+                            .writeVarLong(frames.size());
+                    for (BridgeFrame frame : frames) {
+                        ByteBuffer payload = frame.payload(BridgeConnection.WireFormat.BINARY);
+                        writer.writeVarLong(payload.remaining()).writeBytes(payload);
+                    }
+                    return writer.toByteBuffer();
+                },
+                highestSeq(frames)
+        );
+    }
+
+    private static long highestSeq(List<BridgeFrame> frames) {
+        long seq = 0;
+        for (BridgeFrame frame : frames) seq = Math.max(seq, frame.seq());
+        return seq;
+    }
+
+    static ByteBuffer encodeJson(JsonBody body) {
+        JsonEncoder encoder = JSON_ENCODER.get();
+        try {
+            return encoder.encode(body);
+        } catch (IOException | RuntimeException e) {
+            JSON_ENCODER.remove();
+            throw new IllegalStateException("Failed to encode bridge message", e);
+        }
+    }
+
+    private static final class JsonEncoder {
+        private final Utf8Buffer buffer = new Utf8Buffer();
+        private final JsonWriter writer = new JsonWriter(buffer);
+
+        JsonEncoder() {
+            writer.setStrictness(Strictness.LENIENT);
+        }
+
+        ByteBuffer encode(JsonBody body) throws IOException {
+            buffer.reset();
+            body.write(writer);
+            writer.flush();
+            return buffer.toByteBuffer();
+        }
+    }
+
+    private static final class Utf8Buffer extends Writer {
+        private byte[] bytes = new byte[256];
+        private int size;
+        private char pendingHighSurrogate;
+
+        void reset() {
+            size = 0;
+            pendingHighSurrogate = 0;
+        }
+
+        ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(Arrays.copyOf(bytes, size));
+        }
+
+        @Override
+        public void write(int c) {
+            put((char) c);
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            ensureCapacity(length * 3);
+            for (int i = offset; i < offset + length; i++) put(chars[i]);
+        }
+
+        @Override
+        public void write(String value, int offset, int length) {
+            ensureCapacity(length * 3);
+            for (int i = offset; i < offset + length; i++) put(value.charAt(i));
+        }
+
+        private void put(char c) {
+            ensureCapacity(4);
+            if (pendingHighSurrogate != 0) {
+                char high = pendingHighSurrogate;
+                pendingHighSurrogate = 0;
+                if (Character.isLowSurrogate(c)) {
+                    int codePoint = Character.toCodePoint(high, c);
+                    bytes[size++] = (byte) (0xF0 | (codePoint >> 18));
+                    bytes[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    bytes[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    bytes[size++] = (byte) (0x80 | (codePoint & 0x3F));
+                    return;
+                }
+                bytes[size++] = (byte) '?';
+                ensureCapacity(3);
+            }
+
+            if (c < 0x80) {
+                bytes[size++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[size++] = (byte) (0xC0 | (c >> 6));
+                bytes[size++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c)) {
+                pendingHighSurrogate = c;
+            } else if (Character.isLowSurrogate(c)) {
+                bytes[size++] = (byte) '?';
+            } else {
+                bytes[size++] = (byte) (0xE0 | (c >> 12));
+                bytes[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[size++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+
+        private void ensureCapacity(int additional) {
+            if (size + additional <= bytes.length) return;
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + additional));
+        }
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+    }
+}
@@ -0,0 +1,352 @@
+package discord.chat.mc.websocket;
+
+import discord.chat.mc.DiscordChatIntegration;
+import discord.chat.mc.config.ModConfig;
+import discord.chat.mc.util.ModRuntime;
+import net.minecraft.client.Minecraft;
+import org.java_websocket.WebSocket;
+import org.java_websocket.drafts.Draft_6455;
+import org.java_websocket.exceptions.WebsocketNotConnectedException;
+import org.java_websocket.framing.CloseFrame;
+import org.java_websocket.framing.Framedata;
+import org.java_websocket.protocols.IProtocol;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public final class BridgeConnection {
+    public enum WireFormat { JSON, BINARY }
+    
+    public enum OverflowPolicy {
+        DROP_OLDEST("drop_oldest"),
+        DISCONNECT("disconnect"),
+        BLOCK("block");
+        
+        private final String configName;
+        
+        OverflowPolicy(String configName) {
+            this.configName = configName;
+        }
+        
+        public String configName() { return configName; }
+        
+        public static OverflowPolicy fromConfigName(String configName) {
+            for (OverflowPolicy policy : values()) {
+                if (policy.configName.equals(configName)) return policy;
+            }
+            return DROP_OLDEST;
+        }
+    }
+    
+    private static final long BLOCK_TIMEOUT_MS = 1000;
+    private static final long RETRY_FLUSH_MS = 5;
+    private static final long RESUME_GRACE_MS = 2000;
+    
+    private record QueuedFrame(Framedata frame, int bytes, long seq) {}
+    
+    private final WebSocket socket;
+    private final WireFormat wireFormat;
+    private final TickSubscription tickSubscription = new TickSubscription();
+    private final ClockEstimator clockEstimator = new ClockEstimator();
+    private volatile Set<String> capabilities = Set.of();
+    private long streamId;
+    private long streamStartSeq;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition spaceFreed = lock.newCondition();
+    private final ArrayDeque<QueuedFrame> queue = new ArrayDeque<>();
+    private QueuedFrame latestTick;
+    private long queuedBytes;
+    private long droppedFrames;
+    private boolean overflowed;
+    private boolean retryScheduled;
+    private long droppedSeq;
+    private List<BridgeFrame> heldLiveFrames;
+    
+    BridgeConnection(WebSocket socket) {
+        this.socket = socket;
+        this.wireFormat = resolveWireFormat(socket);
+    }
+    
+    static BridgeConnection of(WebSocket socket) {
+        BridgeConnection connection = socket.getAttachment();
+        if (connection == null) {
+            connection = new BridgeConnection(socket);
+            socket.setAttachment(connection);
+        }
+        return connection;
+    }
+    
+    private static WireFormat resolveWireFormat(WebSocket socket) {
+        if (socket.getDraft() instanceof Draft_6455 draft) {
+            IProtocol protocol = draft.getProtocol();
+            if (protocol != null && BinaryBridgeCodec.SUBPROTOCOL.equals(protocol.getProvidedProtocol())) {
+                return WireFormat.BINARY;
+            }
+        }
+        return WireFormat.JSON;
+    }
+    
+    public WebSocket getSocket() { return socket; }
+    public WireFormat getWireFormat() { return wireFormat; }
+    public boolean isOpen() { return socket.isOpen(); }
+    TickSubscription getTickSubscription() { return tickSubscription; }
+    ClockEstimator getClockEstimator() { return clockEstimator; }
+    
+    boolean hasCapability(String capability) { return capabilities.contains(capability); }
+    void setCapabilities(Set<String> capabilities) { this.capabilities = Set.copyOf(capabilities); }
+    long getStreamStartSeq() { return streamStartSeq; }
+    
+    void setStream(long streamId, long streamStartSeq) {
+        this.streamId = streamId;
+        this.streamStartSeq = streamStartSeq;
+    }
+    
+    public long getQueuedBytes() {
+        lock.lock();
+        try {
+            return queuedBytes + (latestTick != null ? latestTick.bytes() : 0);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public int getQueuedFrames() {
+        lock.lock();
+        try {
+            return queue.size() + (latestTick != null ? 1 : 0);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public long getDroppedFrames() {
+        lock.lock();
+        try {
+            return droppedFrames;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    void send(BridgeFrame frame) {
+        if (!socket.isOpen()) return;
+        QueuedFrame queued = queuedFrame(frame);
+        ModConfig config = ModConfig.getInstance();
+        long budget = config.getBridgeQueueMaxBytes();
+        
+        lock.lock();
+        try {
+            if (overflowed) return;
+            if (queuedBytes + queued.bytes() > budget && !queue.isEmpty()) {
+                OverflowPolicy policy = OverflowPolicy.fromConfigName(config.getBridgeOverflowPolicy());
+                if (!makeRoom(policy, queued, budget)) return;
+            }
+            queue.add(queued);
+            queuedBytes += queued.bytes();
+            flushLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    void sendLatest(BridgeFrame frame) {
+        if (!socket.isOpen()) return;
+        QueuedFrame queued = queuedFrame(frame);
+        lock.lock();
+        try {
+            if (overflowed) return;
+            if (latestTick != null) droppedFrames++;
+            latestTick = queued;
+            flushLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    void drain() {
+        lock.lock();
+        try {
+            if (!overflowed) flushLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Holds back live chat frames until {@link #releaseLiveFrames} is called, so a resumed client
+     * gets its replay before anything newer. Released anyway after a grace period.
+     */
+    void holdLiveFrames() {
+        lock.lock();
+        try {
+            heldLiveFrames = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+        
+        try {
+            ModRuntime.getInstance().schedule(() -> releaseLiveFrames(null, List.of()), RESUME_GRACE_MS);
+        } catch (RejectedExecutionException e) {
+            releaseLiveFrames(null, List.of());
+        }
+    }
+    
+    void sendLive(List<BridgeFrame> frames, BridgeFrame batch) {
+        lock.lock();
+        try {
+            if (heldLiveFrames != null) {
+                heldLiveFrames.addAll(frames);
+                return;
+            }
+            sendSequenced(frames, batch);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Sends {@code notice}, then {@code replay}, then any live frames held since the connection
+     * opened, and resumes live delivery.
+     */
+    void releaseLiveFrames(BridgeFrame notice, List<BridgeFrame> replay) {
+        lock.lock();
+        try {
+            if (notice != null) send(notice);
+            List<BridgeFrame> frames = new ArrayList<>(replay);
+            if (heldLiveFrames != null) {
+                frames.addAll(heldLiveFrames);
+                heldLiveFrames = null;
+            }
+            if (!frames.isEmpty()) sendSequenced(frames, null);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void sendSequenced(List<BridgeFrame> frames, BridgeFrame batch) {
+        if (frames.size() > 1 && hasCapability(BridgeCodec.CAPABILITY_BATCH)) {
+            send(batch != null ? batch : BridgeCodec.batch(frames));
+        } else {
+            for (BridgeFrame frame : frames) send(frame);
+        }
+    }
+    
+    private void retryFlush() {
+        lock.lock();
+        try {
+            retryScheduled = false;
+            if (!overflowed && socket.isOpen()) flushLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private QueuedFrame queuedFrame(BridgeFrame frame) {
+        Framedata framedata = frame.toFramedata(wireFormat);
+        return new QueuedFrame(framedata, framedata.getPayloadData().remaining(), frame.seq());
+    }
+    
+    private boolean makeRoom(OverflowPolicy policy, QueuedFrame incoming, long budget) {
+        int bytes = incoming.bytes();
+        switch (policy) {
+            case DISCONNECT -> {
+                overflowed = true;
+                droppedFrames += queue.size() + 1;
+                queue.clear();
+                queuedBytes = 0;
+                DiscordChatIntegration.LOGGER.warn(
+                        "Disconnecting slow Discord client {}: outbound queue exceeded {} bytes",
+                        socket.getRemoteSocketAddress(),
+                        budget
+                );
+                socket.close(CloseFrame.POLICY_VALIDATION, "Outbound queue overflow");
+                return false;
+            }
+            case BLOCK -> {
+                Minecraft client = Minecraft.getInstance();
+                if (client == null || !client.isSameThread()) {
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(BLOCK_TIMEOUT_MS);
+                    while (queuedBytes + bytes > budget && !queue.isEmpty() && socket.isOpen()) {
+                        flushLocked();
+                        long remaining = deadline - System.nanoTime();
+                        if (queuedBytes + bytes <= budget || queue.isEmpty() || remaining <= 0) break;
+                        try {
+                            spaceFreed.awaitNanos(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(RETRY_FLUSH_MS)));
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            break;
+                        }
+                    }
+                }
+                if (queuedBytes + bytes > budget && !queue.isEmpty()) {
+                    droppedFrames++;
+                    droppedSeq = Math.max(droppedSeq, incoming.seq());
+                    return false;
+                }
+                return !overflowed && socket.isOpen();
+            }
+            default -> {
+                evictOldest(bytes, budget, false);
+                evictOldest(bytes, budget, true);
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * Drops the oldest queued frames of one kind until {@code bytes} more fit. Unsequenced frames
+     * go first; dropping chat is remembered so the client is told with a resync.
+     */
+    private void evictOldest(int bytes, long budget, boolean sequenced) {
+        Iterator<QueuedFrame> frames = queue.iterator();
+        while (queuedBytes + bytes > budget && frames.hasNext()) {
+            QueuedFrame queued = frames.next();
+            if ((queued.seq() > 0) != sequenced) continue;
+            frames.remove();
+            queuedBytes -= queued.bytes();
+            droppedFrames++;
+            droppedSeq = Math.max(droppedSeq, queued.seq());
+        }
+    }
+    
+    private void flushLocked() {
+        if (queue.isEmpty() && latestTick == null && droppedSeq == 0) return;
+        if (socket.hasBufferedData()) {
+            scheduleRetryFlush();
+            return;
+        }
+        
+        List<Framedata> frames = new ArrayList<>(queue.size() + 1);
+        if (latestTick != null) frames.add(latestTick.frame());
+        for (QueuedFrame queued : queue) frames.add(queued.frame());
+        if (droppedSeq > 0) {
+            frames.add(queuedFrame(BridgeCodec.resync(streamId, droppedSeq)).frame());
+            droppedSeq = 0;
+        }
+        latestTick = null;
+        queue.clear();
+        queuedBytes = 0;
+        spaceFreed.signalAll();
+        
+        try {
+            socket.sendFrame(frames);
+        } catch (WebsocketNotConnectedException ignored) {}
+    }
+    
+    private void scheduleRetryFlush() {
+        if (retryScheduled || !socket.isOpen()) return;
+        retryScheduled = true;
+        try {
+            ModRuntime.getInstance().schedule(this::retryFlush, RETRY_FLUSH_MS);
+        } catch (RejectedExecutionException e) {
+            retryScheduled = false;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package discord.chat.mc.websocket;
+
+import org.java_websocket.framing.BinaryFrame;
+import org.java_websocket.framing.DataFrame;
+import org.java_websocket.framing.Framedata;
+import org.java_websocket.framing.TextFrame;
+
+import java.nio.ByteBuffer;
+import java.util.function.Supplier;
+
+final class BridgeFrame {
+    private final Supplier<ByteBuffer> jsonEncoder;
+    private final Supplier<ByteBuffer> binaryEncoder;
+    private final long seq;
+    private volatile ByteBuffer jsonPayload;
+    private volatile ByteBuffer binaryPayload;
+    
+    BridgeFrame(Supplier<ByteBuffer> jsonEncoder, Supplier<ByteBuffer> binaryEncoder) {
+        this(jsonEncoder, binaryEncoder, 0);
+    }
+    
+    BridgeFrame(Supplier<ByteBuffer> jsonEncoder, Supplier<ByteBuffer> binaryEncoder, long seq) {
+        this.jsonEncoder = jsonEncoder;
+        this.binaryEncoder = binaryEncoder;
+        this.seq = seq;
+    }
+    
+    /**
+     * Highest chat sequence number carried by this frame, or 0 if it carries none.
+     */
+    long seq() { return seq; }
+    
+    ByteBuffer payload(BridgeConnection.WireFormat wireFormat) {
+        if (wireFormat == BridgeConnection.WireFormat.BINARY) {
+            ByteBuffer payload = binaryPayload;
+            if (payload == null) {
+                synchronized (this) {
+                    if (binaryPayload == null) binaryPayload = binaryEncoder.get();
+                    payload = binaryPayload;
+                }
+            }
+            return payload;
+        }
+        
+        ByteBuffer payload = jsonPayload;
+        if (payload == null) {
+            synchronized (this) {
+                if (jsonPayload == null) jsonPayload = jsonEncoder.get();
+                payload = jsonPayload;
+            }
+        }
+        return payload;
+    }
+    
+    Framedata toFramedata(BridgeConnection.WireFormat wireFormat) {
+        DataFrame frame = wireFormat == BridgeConnection.WireFormat.BINARY ? new BinaryFrame() : new TextFrame();
+        frame.setPayload(payload(wireFormat).duplicate());
+        frame.setFin(true);
+        return frame;
+    }
+}
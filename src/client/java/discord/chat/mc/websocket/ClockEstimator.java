@@ -0,0 +1,41 @@
+package discord.chat.mc.websocket;
+
+import java.time.Clock;
+import java.time.Instant;
+
+/**
+ * NTP-style round-trip and clock-offset estimate for one connection. Each sample is the four
+ * timestamps of a ping exchange (our send, peer receive, peer transmit, our receive) in epoch
+ * microseconds; the round trip is smoothed like TCP's SRTT and the offset (peer clock minus
+ * ours) with the same gain.
+ */
+final class ClockEstimator {
+    private static final Clock CLOCK = Clock.systemUTC();
+    private static final double GAIN = 0.125;
+
+    private boolean sampled;
+    private double rttMicros;
+    private double offsetMicros;
+
+    static long nowMicros() {
+        Instant now = CLOCK.instant();
+        return now.getEpochSecond() * 1_000_000L + now.getNano() / 1_000;
+    }
+
+    synchronized void addSample(long t0, long t1, long t2, long t3) {
+        double rtt = Math.max(0, (t3 - t0) - (t2 - t1));
+        double offset = ((t1 - t0) + (t2 - t3)) / 2.0;
+        if (!sampled) {
+            sampled = true;
+            rttMicros = rtt;
+            offsetMicros = offset;
+            return;
+        }
+        rttMicros += GAIN * (rtt - rttMicros);
+        offsetMicros += GAIN * (offset - offsetMicros);
+    }
+
+    synchronized boolean hasSample() { return sampled; }
+    synchronized long getRttMicros() { return Math.round(rttMicros); }
+    synchronized long getOffsetMicros() { return Math.round(offsetMicros); }
+}
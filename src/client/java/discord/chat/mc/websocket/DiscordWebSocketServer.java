@@ -1,57 +1,77 @@
 package discord.chat.mc.websocket;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonObject;
 import discord.chat.mc.DiscordChatIntegration;
 import discord.chat.mc.chat.ChatHandler;
+import discord.chat.mc.config.ModConfig;
+import discord.chat.mc.util.KeyedSerialExecutor;
+import discord.chat.mc.util.ModRuntime;
 import net.minecraft.client.Minecraft;
 import net.minecraft.network.chat.Component;
 import org.java_websocket.WebSocket;
 import org.java_websocket.drafts.Draft;
+import org.java_websocket.drafts.Draft_6455;
+import org.java_websocket.extensions.permessage_deflate.PerMessageDeflateExtension;
 import org.java_websocket.handshake.ClientHandshake;
 import org.java_websocket.handshake.ServerHandshakeBuilder;
 import org.java_websocket.exceptions.InvalidDataException;
+import org.java_websocket.extensions.IExtension;
+import org.java_websocket.protocols.IProtocol;
+import org.java_websocket.protocols.Protocol;
 import org.java_websocket.server.WebSocketServer;
 
 import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
-import java.util.function.Consumer;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
 
 public class DiscordWebSocketServer extends WebSocketServer {
-    private static final Gson GSON = new Gson();
     private static DiscordWebSocketServer instance;
+    private static final long AUTOMATION_REQUEST_TIMEOUT_MS = 5000;
     
-    private final Set<WebSocket> connections = Collections.synchronizedSet(new HashSet<>());
-    private Consumer<ChatMessage> messageHandler;
-    private boolean running = false;
-    private List<String> cachedAutomationNames = new ArrayList<>();
-    private String lastAutomationResult = null;
+    private final Set<BridgeConnection> connections = new CopyOnWriteArraySet<>();
+    private final BridgeCodec codec = createCodec();
+    private static final int REPLAY_CAPACITY = 512;
+    private static final int CLOCK_PROBE_INTERVAL_TICKS = 100;
     
-    private final ExecutorService messageExecutor = Executors.newFixedThreadPool(2, r -> {
-        Thread t = new Thread(r, "Discord-WebSocket-Message-Processor");
-        t.setDaemon(true);
-        return t;
-    });
+    private BiConsumer<BridgeConnection, List<ChatMessage>> messageHandler;
+    private boolean running = false;
+    private volatile List<String> cachedAutomationNames = List.of();
+    private final PendingRequests pendingRequests = new PendingRequests();
+    private volatile long observedTick = -1;
+    private volatile PlayerState playerState;
+    private final List<BridgeFrame> pendingMessages = new ArrayList<>();
+    private final ReplayBuffer replayBuffer = new ReplayBuffer(REPLAY_CAPACITY);
+    private final long streamId = ThreadLocalRandom.current().nextLong(1, 1L << 48);
+    private long lastSeq;
+    private long flushedSeq;
+    private long clientTickCounter;
     
-    private final ScheduledExecutorService tickBroadcaster = Executors.newSingleThreadScheduledExecutor(r -> {
-        Thread t = new Thread(r, "Discord-Tick-Broadcaster");
-        t.setDaemon(true);
-        return t;
-    });
+    private final KeyedSerialExecutor inboundExecutor = new KeyedSerialExecutor(ModRuntime.getInstance());
     
     public DiscordWebSocketServer(int port) {
-        super(new InetSocketAddress("127.0.0.1", port));
+        super(new InetSocketAddress("127.0.0.1", port), createDrafts(ModConfig.getInstance()));
         this.setReuseAddr(true);
     }
     
+    private static List<Draft> createDrafts(ModConfig config) {
+        List<IExtension> extensions = new ArrayList<>();
+        if (config.isBridgeCompressionEnabled()) {
+            PerMessageDeflateExtension deflate = new PerMessageDeflateExtension();
+            deflate.setThreshold(config.getBridgeCompressionMinBytes());
+            extensions.add(deflate);
+        }
+        
+        List<IProtocol> protocols = List.of(new Protocol(BinaryBridgeCodec.SUBPROTOCOL), new Protocol(""));
+        return Collections.singletonList(new Draft_6455(extensions, protocols));
+    }
+    
     @Override
     public ServerHandshakeBuilder onWebsocketHandshakeReceivedAsServer(
             WebSocket conn, Draft draft, ClientHandshake request) throws InvalidDataException {
@@ -64,6 +84,10 @@ public class DiscordWebSocketServer extends WebSocketServer {
             throw new InvalidDataException(403, "Origin not allowed: " + origin);
         }
         
+        if (draft instanceof Draft_6455 draft6455 && draft6455.getExtension() instanceof PerMessageDeflateExtension) {
+            DiscordChatIntegration.LOGGER.debug("Negotiated permessage-deflate with {}", conn.getRemoteSocketAddress());
+        }
+        
         return builder;
     }
     
@@ -98,118 +122,62 @@ public class DiscordWebSocketServer extends WebSocketServer {
         instance = new DiscordWebSocketServer(port);
     }
     
-    public void setMessageHandler(Consumer<ChatMessage> handler) { this.messageHandler = handler; }
+    public void setMessageHandler(BiConsumer<BridgeConnection, List<ChatMessage>> handler) { this.messageHandler = handler; }
     
     @Override
     public void onOpen(WebSocket conn, ClientHandshake handshake) {
-        connections.add(conn);
-        DiscordChatIntegration.LOGGER.info("Discord client connected from: {}", conn.getRemoteSocketAddress());
-        
-        JsonObject response = new JsonObject();
-        response.addProperty("type", "connection_status");
-        response.addProperty("status", "connected");
-        response.addProperty("message", "Connected to Minecraft Discord Chat Integration");
-        
-        String playerName = getPlayerName();
-        if (playerName != null) response.addProperty("playerName", playerName);
-        conn.send(GSON.toJson(response));
-        
-        Minecraft client = Minecraft.getInstance();
-        if (client != null) {
-            new Thread(() -> {
-                try {
-                    for (int i = 0; i < 15; i++) {
-                        Thread.sleep(1000);
-                        String name = getPlayerName();
-                        if (name != null && conn.isOpen()) {
-                            JsonObject update = new JsonObject();
-                            update.addProperty("type", "connection_status");
-                            update.addProperty("status", "connected");
-                            update.addProperty("message", "Player name update");
-                            update.addProperty("playerName", name);
-                            conn.send(GSON.toJson(update));
-                            break;
-                        }
-                    }
-                } catch (Exception ignored) {}
-            }, "PlayerName-Resolver").start();
+        BridgeConnection connection = BridgeConnection.of(conn);
+        connection.holdLiveFrames();
+        long seq;
+        synchronized (pendingMessages) {
+            connections.add(connection);
+            seq = flushedSeq;
+            connection.setStream(streamId, seq + 1);
         }
+        DiscordChatIntegration.LOGGER.info(
+                "Discord client connected from: {} ({})",
+                conn.getRemoteSocketAddress(),
+                connection.getWireFormat()
+        );
         
+        connection.send(BridgeCodec.connectionStatus(
+                "Connected to Minecraft Discord Chat Integration", currentPlayerState().name(), streamId, seq));
+        connection.send(BridgeCodec.ping(ClockEstimator.nowMicros()));
         if (connections.size() == 1) showConnectionNotification(true);
     }
     
-    private String getPlayerName() {
-        try {
-            Minecraft client = Minecraft.getInstance();
-            if (client == null) return null;
-            
-            if (client.player != null) {
-                try {
-                    String name = client.player.getName().getString();
-                    if (name != null && !name.isEmpty() && !name.equals("Player")) return name;
-                } catch (Exception ignored) {}
-                
-                try {
-                    String name = client.player.getGameProfile().name();
-                    if (name != null && !name.isEmpty() && !name.equals("Player")) return name;
-                } catch (Exception ignored) {}
-            }
-            
-            try {
-                if (client.getUser() != null) {
-                    String name = client.getUser().getName();
-                    if (name != null && !name.isEmpty() && !name.equals("Player")) return name;
-                }
-            } catch (Exception ignored) {}
-        } catch (Exception ignored) {}
-        return null;
+    private PlayerState currentPlayerState() {
+        PlayerState state = playerState;
+        return state != null ? state : PlayerState.EMPTY;
+    }
+    
+    public void refreshPlayerState(Minecraft client) {
+        PlayerState previous = playerState;
+        PlayerState state = PlayerState.capture(client);
+        if (state.equals(previous)) return;
+        playerState = state;
+        
+        if (connections.isEmpty()) return;
+        broadcast(BridgeCodec.playerInfo(state, state.inWorld() ? observedTick : -1));
+        if (state.name() != null && (previous == null || !state.sameName(previous))) {
+            broadcast(BridgeCodec.connectionStatus("Player name update", state.name()));
+        }
     }
     
     @Override
     public void onClose(WebSocket conn, int code, String reason, boolean remote) {
-        connections.remove(conn);
+        connections.remove(BridgeConnection.of(conn));
         DiscordChatIntegration.LOGGER.info("Discord client disconnected (code: {})", code);
         if (connections.isEmpty()) showConnectionNotification(false);
     }
     
     @Override
     public void onMessage(WebSocket conn, String message) {
-        messageExecutor.execute(() -> {
+        BridgeConnection connection = BridgeConnection.of(conn);
+        inboundExecutor.execute(connection, () -> {
             try {
-                JsonObject json = GSON.fromJson(message, JsonObject.class);
-                String type = json.has("type") ? json.get("type").getAsString() : "";
-                
-                if ("discord_message".equals(type)) {
-                    String author = json.has("author") ? json.get("author").getAsString() : "Unknown";
-                    String content = json.has("content") ? json.get("content").getAsString() : "";
-                    String messageId = json.has("messageId") ? json.get("messageId").getAsString() : null;
-                    boolean tickSync = json.has("tickSync") && json.get("tickSync").getAsBoolean();
-                    String syncGroup = json.has("syncGroup") ? json.get("syncGroup").getAsString() : "none";
-                    long targetTick = json.has("targetTick") ? json.get("targetTick").getAsLong() : -1;
-                    
-                    if (messageHandler != null && !content.isEmpty()) {
-                        messageHandler.accept(new ChatMessage(author, content, messageId, tickSync, syncGroup, targetTick));
-                    }
-                } else if ("set_sync_group".equals(type)) {
-                    String syncGroup = json.has("syncGroup") ? json.get("syncGroup").getAsString() : "none";
-                    ChatHandler.getInstance().setLastSyncGroup(syncGroup);
-                } else if ("get_tick".equals(type)) {
-                    sendCurrentTick(conn);
-                } else if ("ping".equals(type)) {
-                    JsonObject pong = new JsonObject();
-                    pong.addProperty("type", "pong");
-                    conn.send(GSON.toJson(pong));
-                } else if ("request_player_info".equals(type)) {
-                    sendPlayerInfo(conn);
-                } else if ("automations_list".equals(type)) {
-                    if (json.has("automations") && json.get("automations").isJsonArray()) {
-                        cachedAutomationNames.clear();
-                        json.get("automations").getAsJsonArray().forEach(el -> cachedAutomationNames.add(el.getAsString()));
-                    }
-                } else if ("automation_result".equals(type)) {
-                    boolean success = json.has("success") && json.get("success").getAsBoolean();
-                    String msg = json.has("message") ? json.get("message").getAsString() : "";
-                    lastAutomationResult = success ? "§a" + msg : "§c" + msg;
+                if (!codec.dispatchJson(connection, message)) {
+                    DiscordChatIntegration.LOGGER.debug("Ignoring WebSocket message with unknown type");
                 }
             } catch (Exception e) {
                 DiscordChatIntegration.LOGGER.error("Error parsing WebSocket message: {}", e.getMessage());
@@ -217,6 +185,119 @@ public class DiscordWebSocketServer extends WebSocketServer {
         });
     }
     
+    @Override
+    public void onMessage(WebSocket conn, ByteBuffer message) {
+        BridgeConnection connection = BridgeConnection.of(conn);
+        inboundExecutor.execute(connection, () -> {
+            try {
+                if (!codec.dispatchBinary(connection, message)) {
+                    DiscordChatIntegration.LOGGER.debug("Ignoring binary WebSocket message with unknown opcode");
+                }
+            } catch (Exception e) {
+                DiscordChatIntegration.LOGGER.error("Error parsing binary WebSocket message: {}", e.getMessage());
+            }
+        });
+    }
+    
+    private BridgeCodec createCodec() {
+        return new BridgeCodec()
+                .routeBatch("discord_message", BinaryBridgeCodec.OP_DISCORD_MESSAGE,
+                        BridgeCodec::readDiscordMessage, BridgeCodec::readDiscordMessage,
+                        this::handleDiscordMessages)
+                .route("hello", BinaryBridgeCodec.OP_HELLO,
+                        BridgeCodec::readHello, BridgeCodec::readHello,
+                        this::handleHello)
+                .route("resume", BinaryBridgeCodec.OP_RESUME,
+                        BridgeCodec::readResume, BridgeCodec::readResume,
+                        this::handleResume)
+                .route("cancel_message", BinaryBridgeCodec.OP_CANCEL_MESSAGE,
+                        BridgeCodec::readCancelMessage, BridgeCodec::readCancelMessage,
+                        (connection, cancel) -> ChatHandler.getInstance().cancelScheduledMessage(cancel.messageId()))
+                .route("set_sync_group", BinaryBridgeCodec.OP_SET_SYNC_GROUP,
+                        BridgeCodec::readSyncGroup, BridgeCodec::readSyncGroup,
+                        (connection, update) -> ChatHandler.getInstance().setLastSyncGroup(update.syncGroup()))
+                .route("get_tick", BinaryBridgeCodec.OP_GET_TICK,
+                        BridgeCodec::skipFields, BridgeCodec::skipFields,
+                        (connection, ignored) -> sendCurrentTick(connection))
+                .route("ping", BinaryBridgeCodec.OP_PING,
+                        BridgeCodec::readPing, BridgeCodec::readPing,
+                        (connection, ping) -> connection.send(BridgeCodec.pong(ping, observedTick)))
+                .route("pong", BinaryBridgeCodec.OP_PONG_IN,
+                        BridgeCodec::readPong, BridgeCodec::readPong,
+                        this::handlePong)
+                .route("request_player_info", BinaryBridgeCodec.OP_REQUEST_PLAYER_INFO,
+                        BridgeCodec::skipFields, BridgeCodec::skipFields,
+                        (connection, ignored) -> sendPlayerInfo(connection))
+                .route("subscribe_ticks", BinaryBridgeCodec.OP_SUBSCRIBE_TICKS,
+                        BridgeCodec::readTickSubscription, BridgeCodec::readTickSubscription,
+                        this::handleTickSubscription)
+                .route("automations_list", BinaryBridgeCodec.OP_AUTOMATIONS_LIST,
+                        BridgeCodec::readAutomationsList, BridgeCodec::readAutomationsList,
+                        (connection, list) -> handleAutomationsList(list))
+                .route("automation_result", BinaryBridgeCodec.OP_AUTOMATION_RESULT,
+                        BridgeCodec::readAutomationResult, BridgeCodec::readAutomationResult,
+                        (connection, result) -> handleAutomationResult(result));
+    }
+    
+    private void handleDiscordMessages(BridgeConnection connection, List<ChatMessage> messages) {
+        if (messageHandler == null) return;
+        
+        List<ChatMessage> nonEmpty = new ArrayList<>(messages.size());
+        for (ChatMessage message : messages) {
+            if (!message.content.isEmpty()) nonEmpty.add(message);
+        }
+        if (!nonEmpty.isEmpty()) messageHandler.accept(connection, nonEmpty);
+    }
+    
+    private void handleTickSubscription(BridgeConnection connection, BridgeCodec.TickSubscriptionRequest request) {
+        if (request.mode() == null) {
+            DiscordChatIntegration.LOGGER.debug("Ignoring tick subscription with unknown mode");
+            return;
+        }
+        connection.getTickSubscription().update(request.mode(), request.interval());
+    }
+    
+    private void handlePong(BridgeConnection connection, BridgeCodec.Pong pong) {
+        if (pong.t0() <= 0 || pong.t1() <= 0 || pong.t2() <= 0) return;
+        connection.getClockEstimator().addSample(pong.t0(), pong.t1(), pong.t2(), pong.receivedAt());
+    }
+    
+    private void handleHello(BridgeConnection connection, BridgeCodec.Hello hello) {
+        connection.setCapabilities(hello.capabilities());
+        if (!connection.hasCapability(BridgeCodec.CAPABILITY_RESUME)) connection.releaseLiveFrames(null, List.of());
+    }
+    
+    private void handleResume(BridgeConnection connection, BridgeCodec.Resume resume) {
+        List<BridgeFrame> replay;
+        long startSeq;
+        synchronized (pendingMessages) {
+            startSeq = connection.getStreamStartSeq();
+            long fromSeq = resume.lastSeq() + 1;
+            boolean replayable = resume.streamId() == streamId && fromSeq <= startSeq && fromSeq > 0
+                    && replayBuffer.contains(fromSeq, startSeq);
+            replay = replayable ? replayBuffer.range(fromSeq, startSeq) : null;
+        }
+        
+        if (replay == null) {
+            DiscordChatIntegration.LOGGER.debug("Discord client {} needs a resync", connection.getSocket().getRemoteSocketAddress());
+            connection.releaseLiveFrames(BridgeCodec.resync(streamId, startSeq - 1), List.of());
+            return;
+        }
+        
+        if (!replay.isEmpty()) DiscordChatIntegration.LOGGER.debug("Replaying {} message(s) to resumed Discord client", replay.size());
+        connection.releaseLiveFrames(null, replay);
+    }
+    
+    private void handleAutomationsList(BridgeCodec.AutomationsList list) {
+        if (list.names() == null) return;
+        cachedAutomationNames = List.copyOf(list.names());
+        pendingRequests.complete(list.requestId(), list);
+    }
+    
+    private void handleAutomationResult(BridgeCodec.AutomationResult result) {
+        pendingRequests.complete(result.requestId(), result);
+    }
+    
     @Override
     public void onError(WebSocket conn, Exception ex) {
         String msg = ex.getMessage();
@@ -225,134 +306,133 @@ public class DiscordWebSocketServer extends WebSocketServer {
         } else {
             DiscordChatIntegration.LOGGER.error("WebSocket error: {}", msg);
         }
-        if (conn != null) connections.remove(conn);
+        if (conn != null) connections.remove(BridgeConnection.of(conn));
     }
     
     @Override
     public void onStart() {
         running = true;
         DiscordChatIntegration.LOGGER.info("Discord WebSocket server started on port {}", getPort());
-        
-        tickBroadcaster.scheduleAtFixedRate(() -> {
-            try {
-                if (!connections.isEmpty()) broadcastCurrentTick();
-            } catch (Exception ignored) {}
-        }, 1000, 500, TimeUnit.MILLISECONDS);
     }
     
-    public long getCurrentServerTick() {
-        try {
-            Minecraft client = Minecraft.getInstance();
-            if (client != null && client.level != null) return client.level.getGameTime();
-        } catch (Exception ignored) {}
-        return -1;
-    }
+    public long getCurrentServerTick() { return observedTick; }
     
-    public void broadcastCurrentTick() {
-        long tick = getCurrentServerTick();
-        if (tick < 0) return;
+    public void onClientTick(Minecraft client) {
+        clientTickCounter++;
+        PlayerState state = playerState;
+        if (state == null || state.isStale(client)) refreshPlayerState(client);
         
-        JsonObject json = new JsonObject();
-        json.addProperty("type", "tick_update");
-        json.addProperty("tick", tick);
+        long tick = client.level != null ? client.level.getGameTime() : -1;
+        observedTick = tick;
+        if (connections.isEmpty()) return;
         
-        String jsonString = GSON.toJson(json);
-        synchronized (connections) {
-            for (WebSocket conn : connections) {
-                if (conn.isOpen()) conn.send(jsonString);
+        boolean probeClocks = clientTickCounter % CLOCK_PROBE_INTERVAL_TICKS == 0;
+        BridgeFrame frame = null;
+        for (BridgeConnection connection : connections) {
+            if (probeClocks) connection.send(BridgeCodec.ping(ClockEstimator.nowMicros()));
+            if (tick >= 0 && connection.getTickSubscription().shouldSend(tick, clientTickCounter)) {
+                if (connection.getClockEstimator().hasSample()) {
+                    connection.sendLatest(tickUpdate(connection, tick));
+                } else {
+                    if (frame == null) frame = BridgeCodec.tickUpdate(tick);
+                    connection.sendLatest(frame);
+                }
+            } else {
+                connection.drain();
             }
         }
     }
     
-    private void sendCurrentTick(WebSocket conn) {
-        JsonObject json = new JsonObject();
-        json.addProperty("type", "tick_update");
-        json.addProperty("tick", getCurrentServerTick());
-        conn.send(GSON.toJson(json));
+    private static BridgeFrame tickUpdate(BridgeConnection connection, long tick) {
+        ClockEstimator clock = connection.getClockEstimator();
+        if (!clock.hasSample()) return BridgeCodec.tickUpdate(tick);
+        return BridgeCodec.tickUpdate(tick, clock.getRttMicros(), clock.getOffsetMicros());
     }
     
-    private void sendPlayerInfo(WebSocket conn) {
-        String playerName = getPlayerName();
-        Minecraft client = Minecraft.getInstance();
-        boolean inWorld = client != null && client.level != null;
-        boolean inMultiplayer = client != null && !client.isSingleplayer() && client.level != null;
-        
-        JsonObject json = new JsonObject();
-        json.addProperty("type", "player_info");
-        json.addProperty("name", playerName != null ? playerName : "Unknown");
-        json.addProperty("inWorld", inWorld);
-        json.addProperty("inMultiplayer", inMultiplayer);
-        if (inWorld) json.addProperty("serverTick", getCurrentServerTick());
-        
-        conn.send(GSON.toJson(json));
+    private void sendCurrentTick(BridgeConnection connection) {
+        connection.sendLatest(tickUpdate(connection, getCurrentServerTick()));
+    }
+    
+    private void sendPlayerInfo(BridgeConnection connection) {
+        PlayerState state = currentPlayerState();
+        connection.send(BridgeCodec.playerInfo(state, state.inWorld() ? observedTick : -1));
+    }
+    
+    public void broadcastMinecraftMessages(List<ChatHandler.ForwardedMessage> messages) {
+        synchronized (pendingMessages) {
+            for (ChatHandler.ForwardedMessage message : messages) {
+                long seq = ++lastSeq;
+                BridgeFrame frame = BridgeCodec.minecraftMessage(message.playerName(), message.message(), seq);
+                replayBuffer.add(seq, frame);
+                pendingMessages.add(frame);
+            }
+        }
+        flushPendingMessages();
     }
     
-    public void broadcastMinecraftMessage(String playerName, String message) {
-        JsonObject json = new JsonObject();
-        json.addProperty("type", "minecraft_message");
-        json.addProperty("author", playerName);
-        json.addProperty("content", message);
+    private void flushPendingMessages() {
+        List<BridgeFrame> frames;
+        List<BridgeConnection> recipients;
+        synchronized (pendingMessages) {
+            if (pendingMessages.isEmpty()) return;
+            frames = new ArrayList<>(pendingMessages);
+            pendingMessages.clear();
+            flushedSeq = lastSeq;
+            recipients = new ArrayList<>(connections);
+        }
+        if (recipients.isEmpty()) return;
         
-        String jsonString = GSON.toJson(json);
-        synchronized (connections) {
-            connections.removeIf(conn -> !conn.isOpen());
-            for (WebSocket conn : connections) conn.send(jsonString);
+        BridgeFrame batch = frames.size() > 1 ? BridgeCodec.batch(frames) : null;
+        for (BridgeConnection connection : recipients) connection.sendLive(frames, batch);
+    }
+    
+    private void broadcast(BridgeFrame frame) {
+        for (BridgeConnection connection : connections) {
+            connection.send(frame);
         }
     }
     
     public int getConnectionCount() { return connections.size(); }
+    public List<BridgeConnection> getBridgeConnections() { return new ArrayList<>(connections); }
     public boolean isRunning() { return running; }
     
-    public void requestAutomationsList() {
-        JsonObject json = new JsonObject();
-        json.addProperty("type", "get_automations");
-        String jsonString = GSON.toJson(json);
-        synchronized (connections) {
-            for (WebSocket conn : connections) {
-                if (conn.isOpen()) conn.send(jsonString);
-            }
-        }
+    public CompletableFuture<List<String>> requestAutomationsList() {
+        long requestId = pendingRequests.nextId();
+        CompletableFuture<BridgeCodec.AutomationsList> reply =
+                pendingRequests.register(requestId, BridgeCodec.AutomationsList.class, AUTOMATION_REQUEST_TIMEOUT_MS);
+        broadcast(BridgeCodec.request("get_automations", BinaryBridgeCodec.OP_GET_AUTOMATIONS, requestId));
+        return reply.thenApply(BridgeCodec.AutomationsList::names);
     }
     
-    public void runAutomation(String automationName) {
-        JsonObject json = new JsonObject();
-        json.addProperty("type", "run_automation");
-        json.addProperty("name", automationName);
-        String jsonString = GSON.toJson(json);
-        synchronized (connections) {
-            for (WebSocket conn : connections) {
-                if (conn.isOpen()) conn.send(jsonString);
-            }
-        }
+    public CompletableFuture<String> runAutomation(String automationName) {
+        long requestId = pendingRequests.nextId();
+        CompletableFuture<BridgeCodec.AutomationResult> reply =
+                pendingRequests.register(requestId, BridgeCodec.AutomationResult.class, AUTOMATION_REQUEST_TIMEOUT_MS);
+        broadcast(BridgeCodec.runAutomation(automationName, requestId));
+        return reply.thenApply(DiscordWebSocketServer::formatAutomationResult);
     }
     
-    public void stopAutomations() {
-        JsonObject json = new JsonObject();
-        json.addProperty("type", "stop_automation");
-        String jsonString = GSON.toJson(json);
-        synchronized (connections) {
-            for (WebSocket conn : connections) {
-                if (conn.isOpen()) conn.send(jsonString);
-            }
-        }
+    public CompletableFuture<String> stopAutomations() {
+        long requestId = pendingRequests.nextId();
+        CompletableFuture<BridgeCodec.AutomationResult> reply =
+                pendingRequests.register(requestId, BridgeCodec.AutomationResult.class, AUTOMATION_REQUEST_TIMEOUT_MS);
+        broadcast(BridgeCodec.request("stop_automation", BinaryBridgeCodec.OP_STOP_AUTOMATION, requestId));
+        return reply.thenApply(DiscordWebSocketServer::formatAutomationResult);
     }
     
-    public List<String> getCachedAutomationNames() {
-        return new ArrayList<>(cachedAutomationNames);
+    private static String formatAutomationResult(BridgeCodec.AutomationResult result) {
+        return result.success() ? "§a" + result.message() : "§c" + result.message();
     }
     
-    public String getAndClearAutomationResult() {
-        String result = lastAutomationResult;
-        lastAutomationResult = null;
-        return result;
+    public List<String> getCachedAutomationNames() {
+        return cachedAutomationNames;
     }
     
     public void stopServer() {
         try {
             running = false;
-            messageExecutor.shutdown();
-            tickBroadcaster.shutdown();
-            for (WebSocket conn : connections) conn.close(1000, "Server shutting down");
+            pendingRequests.failAll(new CancellationException("Server stopped"));
+            for (BridgeConnection connection : connections) connection.getSocket().close(1000, "Server shutting down");
             connections.clear();
             this.stop(1000);
             DiscordChatIntegration.LOGGER.info("Discord WebSocket server stopped");
@@ -373,13 +453,14 @@ public class DiscordWebSocketServer extends WebSocketServer {
         }
     }
     
-    public static class ChatMessage {
+    public static final class ChatMessage {
         public final String author;
         public final String content;
         public final String messageId;
         public final boolean tickSync;
         public final String syncGroup;
         public final long targetTick;
+        public final long receivedAtNanos = System.nanoTime();
         
         public ChatMessage(String author, String content, String messageId, boolean tickSync, String syncGroup, long targetTick) {
             this.author = author;
@@ -0,0 +1,73 @@
+package discord.chat.mc.websocket;
+
+import discord.chat.mc.util.ModRuntime;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registry of requests sent to the Discord plugin that are waiting for a reply, keyed by the
+ * {@code requestId} the plugin echoes back. Replies without an id (older plugins) complete the
+ * oldest pending request expecting that reply type.
+ */
+final class PendingRequests {
+    private static final class Pending<T> {
+        final Class<T> replyType;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        volatile ScheduledFuture<?> timeout;
+
+        Pending(Class<T> replyType) {
+            this.replyType = replyType;
+        }
+
+        boolean complete(Object reply) {
+            if (!replyType.isInstance(reply)) return false;
+            ScheduledFuture<?> pendingTimeout = timeout;
+            if (pendingTimeout != null) pendingTimeout.cancel(false);
+            return future.complete(replyType.cast(reply));
+        }
+    }
+
+    private final AtomicLong nextId = new AtomicLong();
+    private final ConcurrentSkipListMap<Long, Pending<?>> pending = new ConcurrentSkipListMap<>();
+
+    long nextId() {
+        return nextId.incrementAndGet();
+    }
+
+    <T> CompletableFuture<T> register(long requestId, Class<T> replyType, long timeoutMs) {
+        Pending<T> request = new Pending<>(replyType);
+        pending.put(requestId, request);
+        request.future.whenComplete((reply, error) -> pending.remove(requestId, request));
+
+        try {
+            request.timeout = ModRuntime.getInstance().schedule(() -> request.future.completeExceptionally(
+                    new TimeoutException("No reply within " + timeoutMs + " ms")), timeoutMs);
+        } catch (RejectedExecutionException e) {
+            request.future.completeExceptionally(e);
+        }
+        return request.future;
+    }
+
+    void complete(long requestId, Object reply) {
+        if (requestId > 0) {
+            Pending<?> request = pending.get(requestId);
+            if (request != null) request.complete(reply);
+            return;
+        }
+
+        for (Map.Entry<Long, Pending<?>> entry : pending.entrySet()) {
+            if (entry.getValue().complete(reply)) return;
+        }
+    }
+
+    void failAll(Throwable cause) {
+        for (Pending<?> request : pending.values()) request.future.completeExceptionally(cause);
+        pending.clear();
+    }
+}
@@ -0,0 +1,52 @@
+package discord.chat.mc.websocket;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ServerData;
+
+import java.util.Objects;
+
+record PlayerState(String name, String uuid, boolean inWorld, boolean inMultiplayer, String serverAddress) {
+    static final PlayerState EMPTY = new PlayerState(null, null, false, false, null);
+    
+    static PlayerState capture(Minecraft client) {
+        boolean inWorld = client.level != null;
+        String uuid = null;
+        if (client.player != null && client.player.getUUID() != null) uuid = client.player.getUUID().toString();
+        
+        ServerData server = inWorld ? client.getCurrentServer() : null;
+        String serverAddress = server != null ? server.ip : null;
+        return new PlayerState(resolveName(client), uuid, inWorld, inWorld && !client.isSingleplayer(), serverAddress);
+    }
+    
+    boolean isStale(Minecraft client) {
+        boolean hasLevel = client.level != null;
+        if (hasLevel != inWorld) return true;
+        return name == null || (hasLevel && uuid == null && client.player != null);
+    }
+    
+    boolean sameName(PlayerState other) {
+        return Objects.equals(name, other.name);
+    }
+    
+    private static String resolveName(Minecraft client) {
+        if (client.player != null) {
+            try {
+                String name = client.player.getName().getString();
+                if (name != null && !name.isEmpty() && !name.equals("Player")) return name;
+            } catch (Exception ignored) {}
+            
+            try {
+                String name = client.player.getGameProfile().name();
+                if (name != null && !name.isEmpty() && !name.equals("Player")) return name;
+            } catch (Exception ignored) {}
+        }
+        
+        try {
+            if (client.getUser() != null) {
+                String name = client.getUser().getName();
+                if (name != null && !name.isEmpty() && !name.equals("Player")) return name;
+            }
+        } catch (Exception ignored) {}
+        return null;
+    }
+}
@@ -0,0 +1,49 @@
+package discord.chat.mc.websocket;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-capacity ring of the most recent sequenced frames, oldest evicted first. Sequence
+ * numbers must be appended in order without gaps. Not thread-safe; the server guards it with
+ * its stream lock.
+ */
+final class ReplayBuffer {
+    private final BridgeFrame[] frames;
+    private long firstSeq = 1;
+    private int size;
+    private int head;
+
+    ReplayBuffer(int capacity) {
+        this.frames = new BridgeFrame[capacity];
+    }
+
+    void add(long seq, BridgeFrame frame) {
+        if (size == 0) firstSeq = seq;
+        if (seq != firstSeq + size) throw new IllegalArgumentException("Out of order sequence " + seq);
+
+        if (size == frames.length) {
+            frames[head] = frame;
+            head = (head + 1) % frames.length;
+            firstSeq++;
+        } else {
+            frames[(head + size) % frames.length] = frame;
+            size++;
+        }
+    }
+
+    boolean contains(long fromSeq, long toSeqExclusive) {
+        if (fromSeq >= toSeqExclusive) return true;
+        return size > 0 && fromSeq >= firstSeq && toSeqExclusive <= firstSeq + size;
+    }
+
+    List<BridgeFrame> range(long fromSeq, long toSeqExclusive) {
+        if (!contains(fromSeq, toSeqExclusive)) throw new IllegalArgumentException("Range not buffered");
+
+        List<BridgeFrame> range = new ArrayList<>((int) Math.max(0, toSeqExclusive - fromSeq));
+        for (long seq = fromSeq; seq < toSeqExclusive; seq++) {
+            range.add(frames[(int) ((head + (seq - firstSeq)) % frames.length)]);
+        }
+        return range;
+    }
+}
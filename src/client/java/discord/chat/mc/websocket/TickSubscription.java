@@ -0,0 +1,56 @@
+package discord.chat.mc.websocket;
+
+final class TickSubscription {
+    enum Mode {
+        EVERY_TICK("every_tick"),
+        INTERVAL("interval"),
+        ON_CHANGE("on_change");
+        
+        private final String wireName;
+        
+        Mode(String wireName) {
+            this.wireName = wireName;
+        }
+        
+        static Mode fromWireName(String wireName) {
+            for (Mode mode : values()) {
+                if (mode.wireName.equals(wireName)) return mode;
+            }
+            return null;
+        }
+        
+        static Mode fromOrdinal(int ordinal) {
+            Mode[] modes = values();
+            return ordinal >= 0 && ordinal < modes.length ? modes[ordinal] : null;
+        }
+    }
+    
+    static final int DEFAULT_INTERVAL = 10;
+    static final int MAX_INTERVAL = 1200;
+    
+    private Mode mode = Mode.INTERVAL;
+    private int interval = DEFAULT_INTERVAL;
+    private long lastSentTick = -1;
+    private long lastSentClientTick;
+    
+    synchronized void update(Mode mode, int interval) {
+        this.mode = mode;
+        this.interval = Math.max(1, Math.min(MAX_INTERVAL, interval));
+        this.lastSentTick = -1;
+    }
+    
+    synchronized boolean shouldSend(long tick, long clientTick) {
+        if (tick == lastSentTick) return false;
+        
+        boolean due = lastSentTick < 0 || tick < lastSentTick || switch (mode) {
+            case EVERY_TICK -> true;
+            case INTERVAL -> tick - lastSentTick >= interval;
+            case ON_CHANGE -> tick != lastSentTick + (clientTick - lastSentClientTick);
+        };
+        if (due) {
+            lastSentTick = tick;
+            lastSentClientTick = clientTick;
+        }
+        return due;
+    }
+}
@@ -0,0 +1,83 @@
+package discord.chat.mc.chat;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Compares ChatLineParser with the regexes it replaced on a mix of chat and system lines. Run it
+ * with {@code ./gradlew chatLineBenchmark}; it prints time and allocation per line after warm-up.
+ */
+public final class ChatLineParserBenchmark {
+    private static final List<String> LINES = List.of(
+            "§7[§bVIP§7] §f<Steve> §rhas anyone seen my diamond pickaxe?",
+            "<Alex> gg",
+            "[Admin] [Mod]  Notch: server restarting in 5 minutes",
+            "§eSteve joined the game",
+            "§6[Server] §fWelcome to the server! Type /help for a list of commands.",
+            "[DCI Relay] <Herobrine> hello from Discord"
+    );
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 5;
+    private static final int ITERATIONS = 200_000;
+
+    private static int sink;
+
+    private ChatLineParserBenchmark() {}
+
+    public static void main(String[] args) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            measureParse(false);
+            measureParse(true);
+            measureStrip(false);
+            measureStrip(true);
+        }
+
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            System.out.printf("round %d%n", round + 1);
+            print("  regex parse   ", measureParse(false));
+            print("  scanner parse ", measureParse(true));
+            print("  replaceAll    ", measureStrip(false));
+            print("  stripFormat   ", measureStrip(true));
+        }
+        System.out.printf("checksum %d%n", sink);
+    }
+
+    private static long[] measureParse(boolean scanner) {
+        return measure(() -> {
+            for (int i = 0; i < ITERATIONS; i++) {
+                String line = LINES.get(i % LINES.size());
+                ChatLineParser.ParsedChat parsed = scanner ? ChatLineParser.parse(line) : ChatLineParserTest.RegexChatParser.parse(line);
+                sink += Objects.hashCode(parsed);
+            }
+        });
+    }
+
+    private static long[] measureStrip(boolean scanner) {
+        return measure(() -> {
+            for (int i = 0; i < ITERATIONS; i++) {
+                String line = LINES.get(i % LINES.size());
+                String stripped = scanner ? ChatLineParser.stripFormatting(line) : ChatLineParserTest.RegexChatParser.stripFormatting(line);
+                sink += stripped.length();
+            }
+        });
+    }
+
+    /**
+     * Returns nanoseconds and allocated bytes per line for {@code body}.
+     */
+    private static long[] measure(Runnable body) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long bytesBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        body.run();
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(thread) - bytesBefore;
+        return new long[] {elapsed / ITERATIONS, allocated / ITERATIONS};
+    }
+
+    private static void print(String label, long[] result) {
+        System.out.printf("%s %6d ns/line %6d B/line%n", label, result[0], result[1]);
+    }
+}
@@ -0,0 +1,135 @@
+package discord.chat.mc.chat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks ChatLineParser against the regexes it replaced, kept here as {@link RegexChatParser}.
+ */
+class ChatLineParserTest {
+    private static final List<String> EDGE_CASES = List.of(
+            "",
+            "   ",
+            "§",
+            "<Steve> hi§",
+            "<Steve> hi §",
+            "§a<Steve>§r hello",
+            "§<Steve> hi",
+            "Steve: hi§",
+            "[DCI Relay] <Steve> hi",
+            "§b[DCI Relay]§r Alex: hi",
+            "[Admin] <Steve> hi",
+            "[Admin][VIP] <Steve> hi",
+            "[Admin] [VIP]   Steve: hi",
+            "[[Admin]] <Steve> hi",
+            "[Admin [VIP]] <Steve> hi",
+            "[Admin <Steve> hi",
+            "[Admin Steve: hi",
+            "[] <Steve> hi",
+            "[]Steve: hi",
+            "[Steve: hi] <Alex> yo",
+            "[a:b] Steve: hi",
+            "[time 12:30] Steve: hi",
+            "<> hi",
+            "< > hi",
+            "<Steve>",
+            "<Steve> ",
+            "<Steve>hi",
+            "<Steve:> hi",
+            "<Ste:ve> hi",
+            "<" + "x".repeat(64) + "> hi",
+            "<" + "x".repeat(65) + "> hi",
+            ": hi",
+            " : hi",
+            "ab: hi",
+            "abc: hi",
+            "abc:hi",
+            "abc :  hi",
+            "abc:",
+            "abc: ",
+            "abc:  ",
+            "abcdefghijklmnop: hi",
+            "abcdefghijklmnopq: hi",
+            "Steve: a: b",
+            "Steve: <Alex> hi",
+            "Steve joined the game",
+            "<Steve> line\nbreak",
+            "Steve: line\rbreak",
+            "<Steve> ends ",
+            "<Steve> 😀 smile",
+            "<Steve> §😀 smile",
+            "System: hi"
+    );
+
+    @Test
+    void parsesEdgeCasesLikeTheRegexes() {
+        for (String line : EDGE_CASES) {
+            assertEquals(RegexChatParser.parse(line), ChatLineParser.parse(line), "parse(\"" + line + "\")");
+            assertEquals(RegexChatParser.stripFormatting(line), ChatLineParser.stripFormatting(line), "stripFormatting(\"" + line + "\")");
+        }
+    }
+
+    @Test
+    void rejectsNonChatLines() {
+        assertNull(ChatLineParser.parse(""));
+        assertNull(ChatLineParser.parse("§a§l"));
+        assertNull(ChatLineParser.parse("[DCI Relay] <Steve> hi"));
+        assertNull(ChatLineParser.parse("Steve joined the game"));
+    }
+
+    @Test
+    void parsesRandomLinesLikeTheRegexes() {
+        String[] pieces = {
+                "<", ">", "[", "]", ":", " ", "  ", "\t", "\n", "\r", " ", "§", "§a", "§",
+                "Steve", "ab", "x_1", "Abcdefghijklmnopq", "hello", "[VIP]", "[DCI Relay]", "😀", "é"
+        };
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            StringBuilder line = new StringBuilder();
+            int count = random.nextInt(9);
+            for (int p = 0; p < count; p++) line.append(pieces[random.nextInt(pieces.length)]);
+            String text = line.toString();
+            assertEquals(RegexChatParser.parse(text), ChatLineParser.parse(text), "parse(\"" + text + "\")");
+            assertEquals(RegexChatParser.stripFormatting(text), ChatLineParser.stripFormatting(text), "stripFormatting(\"" + text + "\")");
+        }
+    }
+
+    /**
+     * The chat parsing ChatComponentMixin did before ChatLineParser, returning {@code null} where
+     * the mixin ignored the line or fell back to a "System" message.
+     */
+    static final class RegexChatParser {
+        private static final Pattern BRACKET_CHAT_PATTERN = Pattern.compile("^(?:\\[[^\\]]+\\]\\s*)*<([^>]{1,64})>\\s*(.+)$");
+        private static final Pattern COLON_CHAT_PATTERN = Pattern.compile("^(?:\\[[^\\]]+\\]\\s*)*([A-Za-z0-9_]{3,16})\\s*:\\s+(.+)$");
+
+        private RegexChatParser() {}
+
+        static String stripFormatting(String text) {
+            return text.replaceAll("\\u00A7.", "").trim();
+        }
+
+        static ChatLineParser.ParsedChat parse(String text) {
+            String rawText = stripFormatting(text);
+            if (rawText.isEmpty() || rawText.startsWith("[DCI Relay]")) return null;
+
+            Matcher bracketMatcher = BRACKET_CHAT_PATTERN.matcher(rawText);
+            if (bracketMatcher.matches()) {
+                return new ChatLineParser.ParsedChat(bracketMatcher.group(1).trim(), bracketMatcher.group(2).trim());
+            }
+
+            Matcher colonMatcher = COLON_CHAT_PATTERN.matcher(rawText);
+            if (colonMatcher.matches()) {
+                return new ChatLineParser.ParsedChat(colonMatcher.group(1).trim(), colonMatcher.group(2).trim());
+            }
+
+            return null;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package discord.chat.mc.websocket;
+
+import discord.chat.mc.util.KeyedSerialExecutor;
+import discord.chat.mc.util.ModRuntime;
+import org.java_websocket.WebSocket;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Floods onMessage from several connections at once and checks that every connection's numbered
+ * messages reach the dispatch point in the order they were sent. The handler hands each run on to
+ * a lane keyed by its connection, the same way ChatHandler does before sending chat.
+ */
+class DiscordWebSocketServerOrderingTest {
+    private static final int CONNECTIONS = 8;
+    private static final int MESSAGES_PER_CONNECTION = 5000;
+
+    @Test
+    void deliversEachConnectionsMessagesInOrder() throws Exception {
+        DiscordWebSocketServer server = new DiscordWebSocketServer(0);
+        KeyedSerialExecutor dispatchLanes = new KeyedSerialExecutor(ModRuntime.getInstance());
+        ConcurrentHashMap<BridgeConnection, Integer> lastDispatched = new ConcurrentHashMap<>();
+        AtomicInteger outOfOrder = new AtomicInteger();
+        CountDownLatch delivered = new CountDownLatch(CONNECTIONS * MESSAGES_PER_CONNECTION);
+
+        server.setMessageHandler((connection, messages) -> dispatchLanes.execute(connection, () -> {
+            for (DiscordWebSocketServer.ChatMessage message : messages) {
+                int number = Integer.parseInt(message.content);
+                Integer previous = lastDispatched.put(connection, number);
+                if (number != (previous == null ? 0 : previous + 1)) outOfOrder.incrementAndGet();
+                delivered.countDown();
+            }
+        }));
+
+        List<Thread> producers = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        for (int c = 0; c < CONNECTIONS; c++) {
+            WebSocket socket = fakeSocket();
+            String author = "client" + c;
+            Thread producer = new Thread(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < MESSAGES_PER_CONNECTION; i++) {
+                    server.onMessage(socket, "{\"type\":\"discord_message\",\"author\":\"" + author + "\",\"content\":\"" + i + "\"}");
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+        start.countDown();
+        for (Thread producer : producers) producer.join();
+
+        assertTrue(delivered.await(60, TimeUnit.SECONDS), "only " + (CONNECTIONS * MESSAGES_PER_CONNECTION - delivered.getCount()) + " messages were dispatched");
+        assertEquals(0, outOfOrder.get(), "out-of-order dispatches");
+        assertEquals(CONNECTIONS, lastDispatched.size(), "connections seen at the dispatch point");
+        for (int last : lastDispatched.values()) assertEquals(MESSAGES_PER_CONNECTION - 1, last, "last message dispatched");
+    }
+
+    private static WebSocket fakeSocket() {
+        AtomicReference<Object> attachment = new AtomicReference<>();
+        return (WebSocket) Proxy.newProxyInstance(
+                WebSocket.class.getClassLoader(),
+                new Class<?>[] {WebSocket.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getAttachment" -> attachment.get();
+                    case "setAttachment" -> {
+                        attachment.set(args[0]);
+                        yield null;
+                    }
+                    case "isOpen" -> true;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "fake socket";
+                    default -> method.getReturnType() == boolean.class ? false : null;
+                }
+        );
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -43,8 +43,11 @@ interface AutomationConfig {
 
 const GEAR_ICON_PATH = "M19.14 12.94c.04-.31.06-.63.06-.94 0-.31-.02-.63-.06-.94l2.03-1.58a.49.49 0 0 0 .12-.61l-1.92-3.32a.49.49 0 0 0-.59-.22l-2.39.96c-.5-.38-1.03-.7-1.62-.94l-.36-2.54a.484.484 0 0 0-.48-.41h-3.84c-.24 0-.43.17-.47.41l-.36 2.54c-.59.24-1.13.57-1.62.94l-2.39-.96a.49.49 0 0 0-.59.22L2.74 8.87c-.12.21-.08.47.12.61l2.03 1.58c-.04.31-.06.63-.06.94s.02.63.06.94l-2.03 1.58a.49.49 0 0 0-.12.61l1.92 3.32c.12.22.37.29.59.22l2.39-.96c.5.38 1.03.7 1.62.94l.36 2.54c.05.24.24.41.48.41h3.84c.24 0 .44-.17.47-.41l.36-2.54c.59-.24 1.13-.56 1.62-.94l2.39.96c.22.08.47 0 .59-.22l1.92-3.32c.12-.22.07-.47-.12-.61l-2.01-1.58zM12 15.6c-1.98 0-3.6-1.62-3.6-3.6s1.62-3.6 3.6-3.6 3.6 1.62 3.6 3.6-1.62 3.6-3.6 3.6z";
 const TICK_SYNC_BUFFER = 5;
+const TICK_SYNC_MIN_LEAD = 2;
+const TICK_MS = 50;
 const DEFAULT_RELAY_URL = "https://discordrelay.lacha.dev/relay";
 const RELAY_SOURCE_ID_KEY = "minecraft-chat-relay-source-id";
+const STREAM_STATE_KEY_PREFIX = "minecraft-chat-stream-";
 
 const automationLastTriggered = new Map<string, number>();
 const wsConnections = new Map<string, WebSocket>();
@@ -58,6 +61,12 @@ const processedDiscordMessageIds = new Set<string>();
 const messageQueues = new Map<string, Array<{ plainText: string; messageText: string; channelId: string; clientName: string }>>();
 const isSendingMessage = new Map<string, boolean>();
 const clientTicks = new Map<string, number>();
+const clientTickReceivedAt = new Map<string, number>();
+const clientRttUs = new Map<string, number>();
+const bridgeCapabilities = new Map<string, Set<string>>();
+const streamStates = new Map<string, { streamId: number; lastSeq: number }>();
+const outboundBatches = new Map<string, any[]>();
+let outboundFlushScheduled = false;
 const delayedMessages: DelayedMessage[] = [];
 const runningAutomations = new Map<string, AbortController>();
 let automationInstanceCounter = 0;
@@ -356,8 +365,13 @@ function connectWebSocket(client: ClientConfig, attemptedPort?: number): void {
             
             log(`Client "${client.name}" connected on port ${portToUse}`);
             
+            bridgeCapabilities.delete(client.id);
             try {
+                const stream = getStreamState(client.id);
+                ws.send(JSON.stringify({ type: "hello", capabilities: stream ? ["batch", "resume"] : ["batch"] }));
                 ws.send(JSON.stringify({ type: "set_sync_group", syncGroup: client.syncGroup || "A" }));
+                ws.send(JSON.stringify({ type: "subscribe_ticks", mode: "every_tick" }));
+                if (stream) ws.send(JSON.stringify({ type: "resume", streamId: stream.streamId, lastSeq: stream.lastSeq }));
             } catch (e) {}
             
             const interval = reconnectIntervals.get(client.id);
@@ -470,12 +484,41 @@ function refreshClientStatus(clientId: string) {
 const hasMultipleClientsForChannel = (channelId: string) => 
     getClients().filter(c => c.channelId === channelId && c.enabled && c.forwardToDiscord).length > 1;
 
+function getStreamState(clientId: string) {
+    let state = streamStates.get(clientId);
+    if (!state) {
+        try {
+            const stored = globalThis.sessionStorage?.getItem(STREAM_STATE_KEY_PREFIX + clientId);
+            if (stored) state = JSON.parse(stored);
+        } catch {}
+        if (state) streamStates.set(clientId, state);
+    }
+    return state;
+}
+
+function saveStreamState(clientId: string, streamId: number, lastSeq: number) {
+    const state = { streamId, lastSeq };
+    streamStates.set(clientId, state);
+    try {
+        globalThis.sessionStorage?.setItem(STREAM_STATE_KEY_PREFIX + clientId, JSON.stringify(state));
+    } catch {}
+}
+
 function handleMinecraftMessage(data: any, clientId: string) {
     const client = getClients().find(c => c.id === clientId);
     if (!client) return;
     
+    if (data.type === "minecraft_message" && typeof data.seq === "number") {
+        const stream = getStreamState(clientId);
+        if (stream && data.seq > stream.lastSeq) saveStreamState(clientId, stream.streamId, data.seq);
+    }
+    
     switch (data.type) {
         case "connection_status": {
+            if (Array.isArray(data.capabilities)) bridgeCapabilities.set(clientId, new Set(data.capabilities));
+            if (typeof data.streamId === "number" && getStreamState(clientId)?.streamId !== data.streamId) {
+                saveStreamState(clientId, data.streamId, data.seq ?? 0);
+            }
         const newPlayerName = data.playerName;
             if (!newPlayerName || newPlayerName === "Unknown" || !newPlayerName.trim()) return;
             const previousPlayerName = playerNames.get(clientId);
@@ -496,7 +539,35 @@ function handleMinecraftMessage(data: any, clientId: string) {
             break;
         }
         case "tick_update":
-            if (typeof data.tick === "number" && data.tick >= 0) clientTicks.set(clientId, data.tick);
+            if (typeof data.tick === "number" && data.tick >= 0) {
+                clientTicks.set(clientId, data.tick);
+                clientTickReceivedAt.set(clientId, performance.now());
+            }
+            if (typeof data.rttUs === "number") clientRttUs.set(clientId, data.rttUs);
+            break;
+        case "ping": {
+            const t1 = nowMicros();
+            const ws = wsConnections.get(clientId);
+            if (ws?.readyState === WebSocket.OPEN) {
+                try {
+                    ws.send(JSON.stringify({ type: "pong", t0: data.t0, t1, t2: nowMicros() }));
+                } catch {}
+            }
+            break;
+        }
+        case "resync": {
+            const stream = getStreamState(clientId);
+            const lastSeq = stream?.streamId === data.streamId ? Math.max(stream.lastSeq, data.seq) : data.seq;
+            saveStreamState(clientId, data.streamId, lastSeq);
+            log(`Could not replay missed messages for "${client.name}", some chat may be missing`);
+            break;
+        }
+        case "batch":
+            if (Array.isArray(data.messages)) {
+                for (const message of data.messages) {
+                    if (message?.type !== "batch") handleMinecraftMessage(message, clientId);
+                }
+            }
             break;
         case "minecraft_message": {
         const author = data.author || "Minecraft";
@@ -533,6 +604,7 @@ function handleMinecraftMessage(data: any, clientId: string) {
                     try {
                         ws.send(JSON.stringify({
                             type: "automation_result",
+                            requestId: data.requestId,
                             name: automationName,
                             success,
                             message: success ? `Automation "${automationName}" executed` : `Automation "${automationName}" not found`
@@ -549,6 +621,7 @@ function handleMinecraftMessage(data: any, clientId: string) {
                 try {
                     ws.send(JSON.stringify({
                         type: "automation_result",
+                        requestId: data.requestId,
                         success: true,
                         message: count > 0 ? `Stopped ${count} running automation(s)` : "No automations were running"
                     }));
@@ -562,6 +635,7 @@ function handleMinecraftMessage(data: any, clientId: string) {
                 try {
                     ws.send(JSON.stringify({
                         type: "automations_list",
+                        requestId: data.requestId,
                         automations: getAutomationNames()
                     }));
                 } catch {}
@@ -635,7 +709,7 @@ function sendToMinecraft(author: string, content: string, channelId: string, mes
                 const message: any = { type: "discord_message", author, content, tickSync: useTickSync, syncGroup };
                 if (useTickSync) message.targetTick = targetTick;
                 if (messageId) message.messageId = messageId;
-                ws.send(JSON.stringify(message));
+                sendBridgeMessage(client.id, ws, message);
             } catch (e) {
                 console.error(`[MinecraftChat] Error sending to ${client.name}:`, e);
             }
@@ -653,23 +727,63 @@ function toggleChatDelay(): boolean {
     return chatDelayEnabled;
 }
 
+function sendBridgeMessage(clientId: string, ws: WebSocket, message: any) {
+    if (!bridgeCapabilities.get(clientId)?.has("batch")) {
+        ws.send(JSON.stringify(message));
+        return;
+    }
+    
+    if (!outboundBatches.has(clientId)) outboundBatches.set(clientId, []);
+    outboundBatches.get(clientId)!.push(message);
+    if (!outboundFlushScheduled) {
+        outboundFlushScheduled = true;
+        queueMicrotask(flushOutboundBatches);
+    }
+}
+
+function flushOutboundBatches() {
+    outboundFlushScheduled = false;
+    for (const [clientId, messages] of outboundBatches) {
+        const ws = wsConnections.get(clientId);
+        if (ws?.readyState !== WebSocket.OPEN) continue;
+        try {
+            ws.send(JSON.stringify(messages.length === 1 ? messages[0] : { type: "batch", messages }));
+        } catch (e) {
+            console.error(`[MinecraftChat] Error sending batch to ${clientId}:`, e);
+        }
+    }
+    outboundBatches.clear();
+}
+
 function calculateTargetTickForSyncGroup(syncGroup: string): number {
     if (syncGroup === "none") return -1;
     
     const syncGroupClients = getClients().filter(c => c.enabled && (c.syncGroup || "A") === syncGroup);
     if (syncGroupClients.length === 0) return -1;
     
-    const maxTick = syncGroupClients.reduce((max, client) => {
+    const now = performance.now();
+    const targetTick = syncGroupClients.reduce((max, client) => {
         const tick = clientTicks.get(client.id);
-        return tick !== undefined && tick >= 0 ? Math.max(max, tick) : max;
+        if (tick === undefined || tick < 0) return max;
+        
+        const rttUs = clientRttUs.get(client.id);
+        if (rttUs === undefined) return Math.max(max, tick + TICK_SYNC_BUFFER);
+        
+        const elapsedTicks = Math.floor((now - (clientTickReceivedAt.get(client.id) ?? now)) / TICK_MS);
+        const leadTicks = TICK_SYNC_MIN_LEAD + Math.ceil(rttUs / 1000 / TICK_MS);
+        return Math.max(max, tick + elapsedTicks + leadTicks);
     }, -1);
     
-    if (maxTick < 0) {
+    if (targetTick < 0) {
         log(`No tick data for sync group ${syncGroup}`);
         return -1;
     }
-    return maxTick + TICK_SYNC_BUFFER;
+    return targetTick;
     }
+
+function nowMicros(): number {
+    return Math.round((performance.timeOrigin + performance.now()) * 1000);
+}
     
 function sendToTargetClients(author: string, content: string, targetClientIds: string[], syncGroupTargetTicks?: Map<string, number>) {
     const clients = getClients();
@@ -693,7 +807,7 @@ function sendToTargetClients(author: string, content: string, targetClientIds: s
                 try {
                     const message: any = { type: "discord_message", author, content, tickSync: targetTick >= 0, syncGroup };
                     if (targetTick >= 0) message.targetTick = targetTick;
-                    ws.send(JSON.stringify(message));
+                    sendBridgeMessage(client.id, ws, message);
                 } catch (e) {
                     console.error(`[MinecraftChat] Error sending to ${client.name}:`, e);
                 }
@@ -743,7 +857,7 @@ function sendToMinecraftWithSyncGroups(
                     const message: any = { type: "discord_message", author, content, tickSync: targetTick >= 0, syncGroup };
                     if (messageId) message.messageId = messageId;
                     if (targetTick >= 0) message.targetTick = targetTick;
-                    ws.send(JSON.stringify(message));
+                    sendBridgeMessage(client.id, ws, message);
                 } catch (e) {
                     console.error(`[MinecraftChat] Error sending to ${client.name}:`, e);
                 }